@@ -1,5 +1,6 @@
 package com.lovedev.api.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -22,4 +23,45 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Bounds how many FCM sendEach calls PushOutboxDispatcher runs at once
+     */
+    @Bean(name = "pushDispatchExecutor")
+    public Executor pushDispatchExecutor(@Value("${app.notification.push.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("push-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Bounds how many SMTP connections MailOutboxDispatcher uses at once (same setting as SmtpConnectionPool)
+     */
+    @Bean(name = "mailDispatchExecutor")
+    public Executor mailDispatchExecutor(@Value("${app.email.queue.concurrency:4}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("mail-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes to notification streams (NotificationStreamHub), off the threads that commit notifications
+     */
+    @Bean(name = "notificationStreamExecutor")
+    public Executor notificationStreamExecutor(@Value("${app.notification.stream.concurrency:2}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(10000);
+        executor.setThreadNamePrefix("sse-");
+        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.lovedev.api.config;
+
+import com.lovedev.api.service.FirebasePushGateway;
+import com.lovedev.api.service.PushGateway;
+import com.lovedev.api.service.SimulatedPushGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Slf4j
+public class PushGatewayConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.notification.push.gateway", havingValue = "firebase", matchIfMissing = true)
+    public PushGateway firebasePushGateway() {
+        return new FirebasePushGateway();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.notification.push.gateway", havingValue = "simulated")
+    public SimulatedPushGateway simulatedPushGateway(
+            @Value("${app.notification.push.simulated.latency:20}") long latency,
+            @Value("${app.notification.push.simulated.latency-jitter:10}") long latencyJitter,
+            @Value("${app.notification.push.simulated.error-rate:0.0}") double errorRate,
+            @Value("${app.notification.push.simulated.invalid-token-rate:0.0}") double invalidTokenRate,
+            @Value("${app.notification.push.simulated.token-errors:}") String tokenErrors) {
+        log.warn("Push gateway is SIMULATED: no push notification leaves this process");
+        return new SimulatedPushGateway(latency, latencyJitter, errorRate, invalidTokenRate,
+                SimulatedPushGateway.parseTokenErrors(tokenErrors));
+    }
+}
@@ -2,18 +2,29 @@ package com.lovedev.api.controller;
 
 import com.lovedev.api.model.dto.request.*;
 import com.lovedev.api.model.dto.response.ApiResponse;
+import com.lovedev.api.model.dto.response.AuditLogResponse;
+import com.lovedev.api.model.dto.response.CursorPageResponse;
 import com.lovedev.api.model.dto.response.PageResponse;
 import com.lovedev.api.model.dto.response.UserResponse;
+import com.lovedev.api.model.dto.response.UserSuggestionResponse;
+import com.lovedev.api.model.enums.AuditAction;
+import com.lovedev.api.service.AuditService;
 import com.lovedev.api.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,12 +33,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 @SecurityRequirement(name = "Bearer Authentication")
 @PreAuthorize("hasRole('ADMIN')")
-@Tag(name = "Admin", description = "Admin user management endpoints")
+@Tag(name = "Admin", description = "Admin user management and audit endpoints")
 public class AdminController {
 
     private final UserService userService;
+    private final AuditService auditService;
 
-    @Operation(summary = "Search users", description = "Search and filter users with pagination")
+    @Operation(summary = "Search users",
+            description = "Search and filter users with pagination. With a keyword, sortBy=relevance " +
+                    "orders results by trigram similarity.")
     @GetMapping("/users")
     public ResponseEntity<ApiResponse<PageResponse<UserResponse>>> searchUsers(
             @RequestParam(required = false) String keyword,
@@ -52,6 +66,54 @@ public class AdminController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @Operation(summary = "Search users (cursor)",
+            description = "Search and filter users with keyset pagination. Pass nextCursor from the previous " +
+                    "response as cursor. withTotal adds a total (estimated when unfiltered).")
+    @GetMapping("/users/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<UserResponse>>> searchUsersByCursor(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Boolean emailVerified,
+            @RequestParam(required = false) String roleName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+
+        UserSearchRequest searchRequest = new UserSearchRequest();
+        searchRequest.setKeyword(keyword);
+        searchRequest.setRoleName(roleName);
+
+        if (status != null) {
+            searchRequest.setStatus(com.lovedev.api.model.enums.UserStatus.valueOf(status.toUpperCase()));
+        }
+        searchRequest.setEmailVerified(emailVerified);
+
+        CursorPageResponse<UserResponse> response =
+                userService.searchUsersByCursor(searchRequest, cursor, size, sortBy, sortDir, withTotal);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "Suggest users",
+            description = "Typeahead over name and email prefixes, best matches first. Served from the " +
+                    "in-memory user index when enabled, otherwise from the database.")
+    @GetMapping("/users/suggest")
+    public ResponseEntity<ApiResponse<List<UserSuggestionResponse>>> suggestUsers(
+            @RequestParam String q,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Boolean emailVerified,
+            @RequestParam(required = false) String roleName,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        com.lovedev.api.model.enums.UserStatus userStatus = status != null
+                ? com.lovedev.api.model.enums.UserStatus.valueOf(status.toUpperCase())
+                : null;
+
+        List<UserSuggestionResponse> response = userService.suggestUsers(q, userStatus, emailVerified, roleName, limit);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     @Operation(summary = "Get user by ID", description = "Get user details by ID")
     @GetMapping("/users/{id}")
     public ResponseEntity<ApiResponse<UserResponse>> getUserById(@PathVariable UUID id) {
@@ -126,4 +188,68 @@ public class AdminController {
         UserResponse response = userService.updateRoles(id, request.getRoleNames());
         return ResponseEntity.ok(ApiResponse.success("User roles updated successfully", response));
     }
-}
\ No newline at end of file
+
+    @Operation(summary = "Search audit logs",
+            description = "Audit logs newest first, with keyset pagination: pass nextCursor from the previous " +
+                    "response as cursor. oldValue/newValue are JSON objects the stored value must contain, " +
+                    "e.g. newValue={\"status\":\"BANNED\"} finds every change to BANNED.")
+    @GetMapping("/audit-logs")
+    public ResponseEntity<ApiResponse<CursorPageResponse<AuditLogResponse>>> searchAuditLogs(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) AuditAction action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String oldValue,
+            @RequestParam(required = false) String newValue,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        AuditLogSearchRequest searchRequest =
+                toAuditLogSearch(userId, action, entityType, entityId, from, to, oldValue, newValue);
+
+        CursorPageResponse<AuditLogResponse> response = auditService.searchAuditLogs(searchRequest, cursor, size);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "Export audit logs",
+            description = "Every matching audit log as NDJSON (one JSON object per line), oldest first, " +
+                    "streamed as it is read. Takes the same filters as the search.")
+    @GetMapping(value = "/audit-logs/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAuditLogs(
+            @RequestParam(required = false) UUID userId,
+            @RequestParam(required = false) AuditAction action,
+            @RequestParam(required = false) String entityType,
+            @RequestParam(required = false) String entityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String oldValue,
+            @RequestParam(required = false) String newValue) {
+
+        AuditLogSearchRequest searchRequest =
+                toAuditLogSearch(userId, action, entityType, entityId, from, to, oldValue, newValue);
+
+        StreamingResponseBody body = out -> auditService.exportAuditLogs(searchRequest, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("audit-logs.ndjson").build().toString())
+                .body(body);
+    }
+
+    private static AuditLogSearchRequest toAuditLogSearch(UUID userId, AuditAction action, String entityType,
+                                                          String entityId, LocalDateTime from, LocalDateTime to,
+                                                          String oldValue, String newValue) {
+        AuditLogSearchRequest searchRequest = new AuditLogSearchRequest();
+        searchRequest.setUserId(userId);
+        searchRequest.setAction(action);
+        searchRequest.setEntityType(entityType);
+        searchRequest.setEntityId(entityId);
+        searchRequest.setFrom(from);
+        searchRequest.setTo(to);
+        searchRequest.setOldValue(oldValue);
+        searchRequest.setNewValue(newValue);
+        return searchRequest;
+    }
+}
@@ -0,0 +1,169 @@
+package com.lovedev.api.controller;
+
+import com.lovedev.api.service.FileStorageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Serves stored files (avatars, ...) by the relative name FileStorageService.getFileUrl hands out
+ * Responses carry a strong content-hash ETag and honor If-None-Match (304) and single byte ranges (206).
+ * On Tomcat the body is written by the connector with sendfile (zero-copy), otherwise with FileChannel.transferTo.
+ */
+@RestController
+@RequestMapping("/api/v1/files")
+@RequiredArgsConstructor
+@Tag(name = "File", description = "Stored file download endpoints")
+public class FileController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // Below this, a plain copy is cheaper than handing the file to the poller (Tomcat's own default)
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    // FileUtil names stored files <uuid>.<ext> and never rewrites them: their content is fixed for good
+    private static final Pattern IMMUTABLE_NAME = Pattern.compile(
+            "(?:.*/)?[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.[A-Za-z0-9]+");
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE_CACHE_CONTROL = "public, no-cache";
+
+    private final FileStorageService fileStorageService;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Operation(summary = "Download file",
+            description = "Returns a stored file. Supports If-None-Match / If-Modified-Since (304) " +
+                    "and a single Range (206, or 416 when unsatisfiable); HEAD returns headers only.")
+    @GetMapping("/**")
+    public void getFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String fileName = fileName(request);
+        Path file = fileStorageService.loadFileAsResource(fileName).getFile().toPath();
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = fileStorageService.getETag(file, attributes);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE_NAME.matcher(fileName).matches()
+                ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+        // Sets ETag and Last-Modified, and answers If-None-Match / If-Modified-Since with 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(fileName)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long start = 0;
+        long end = length; // exclusive
+        HttpRange range = singleRange(request, etag, lastModified);
+        if (range != null && length > 0) {
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length) + 1;
+            } catch (IllegalArgumentException e) {
+                start = end; // first-byte-pos past the end
+            }
+            if (start >= end) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+        response.setContentLengthLong(end - start);
+
+        if (!HttpMethod.HEAD.matches(request.getMethod())) {
+            write(request, response, file, start, end);
+        }
+    }
+
+    private String fileName(HttpServletRequest request) {
+        String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pathMatcher.extractPathWithinPattern(pattern, path);
+    }
+
+    /**
+     * The requested range, or null to send the whole file
+     * Malformed and multi-range headers are ignored, as is a Range whose If-Range no longer matches.
+     */
+    private static HttpRange singleRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null || !ifRangeMatches(request, etag, lastModified)) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Strong comparison only: a weak validator never matches
+            return ifRange.equals(etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response,
+                              Path file, long start, long end) throws IOException {
+        if (end - start >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the range itself once the request is done, straight from the page cache
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    break; // truncated since Content-Length was set: the client sees a short body
+                }
+                position += sent;
+            }
+        }
+    }
+}
@@ -2,20 +2,25 @@ package com.lovedev.api.controller;
 
 import com.lovedev.api.model.dto.request.*;
 import com.lovedev.api.model.dto.response.ApiResponse;
+import com.lovedev.api.model.dto.response.CursorPageResponse;
 import com.lovedev.api.model.dto.response.NotificationResponse;
 import com.lovedev.api.model.dto.response.NotificationSettingsResponse;
 import com.lovedev.api.model.dto.response.PageResponse;
 import com.lovedev.api.model.entity.NotificationSettings;
 import com.lovedev.api.service.FCMService;
 import com.lovedev.api.service.NotificationService;
+import com.lovedev.api.service.NotificationStreamHub;
+import com.lovedev.api.util.SecurityHelper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.Map;
 import java.util.UUID;
@@ -29,6 +34,7 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final FCMService fcmService;
+    private final NotificationStreamHub notificationStreamHub;
 
     // ============================================
     // User Notification Endpoints
@@ -45,6 +51,33 @@ public class NotificationController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
+    @Operation(summary = "Get user notifications (cursor)",
+            description = "Newest-first keyset pagination without a total count. Pass nextCursor from the " +
+                    "previous response as before; hasNext tells whether more notifications exist.")
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<NotificationResponse>>> getUserNotificationsBefore(
+            @RequestParam(required = false) String before,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String status) {
+
+        CursorPageResponse<NotificationResponse> response =
+                notificationService.getUserNotificationsBefore(before, size, status);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
+    @Operation(summary = "Stream new notifications",
+            description = "Server-Sent Events stream of new notifications. Reconnect with Last-Event-ID to receive " +
+                    "missed ones; a 'resync' event means the client should refetch the list instead")
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamNotifications(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        SseEmitter emitter = notificationStreamHub.subscribe(SecurityHelper.getCurrentUserId(), lastEventId);
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no") // nginx: don't buffer the stream
+                .body(emitter);
+    }
+
     @Operation(summary = "Get notification statistics", description = "Get notification counts (unread, read, total)")
     @GetMapping("/stats")
     public ResponseEntity<ApiResponse<Map<String, Long>>> getNotificationStats() {
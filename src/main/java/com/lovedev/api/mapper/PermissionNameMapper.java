@@ -0,0 +1,30 @@
+package com.lovedev.api.mapper;
+
+import com.lovedev.api.model.entity.Role;
+import com.lovedev.api.security.PermissionMatrix;
+import lombok.RequiredArgsConstructor;
+import org.mapstruct.Named;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Resolves permission names for a set of roles through PermissionMatrix
+ * Used by mappers so responses never load Role.permissions.
+ */
+@Component
+@RequiredArgsConstructor
+public class PermissionNameMapper {
+
+    private final PermissionMatrix permissionMatrix;
+
+    @Named("permissionNames")
+    public Set<String> toPermissionNames(Set<Role> roles) {
+        Set<String> roleNames = new HashSet<>();
+        for (Role role : roles) {
+            roleNames.add(role.getName());
+        }
+        return permissionMatrix.getPermissionNames(roleNames);
+    }
+}
@@ -4,6 +4,7 @@ import com.lovedev.api.model.dto.request.RegisterRequest;
 import com.lovedev.api.model.dto.request.UpdateUserRequest;
 import com.lovedev.api.model.dto.response.AuditLogResponse;
 import com.lovedev.api.model.dto.response.UserResponse;
+import com.lovedev.api.model.dto.response.UserSuggestionResponse;
 import com.lovedev.api.model.entity.AuditLog;
 import com.lovedev.api.model.entity.User;
 import org.mapstruct.*;
@@ -13,7 +14,8 @@ import java.util.List;
 @Mapper(
         componentModel = "spring",
         nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE,
-        unmappedTargetPolicy = ReportingPolicy.IGNORE
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        uses = PermissionNameMapper.class
 )
 public interface UserMapper {
 
@@ -30,12 +32,16 @@ public interface UserMapper {
     @Mapping(source = "lastName", target = "lastName")
     @Mapping(target = "fullName", expression = "java(user.getFullName())")
     @Mapping(target = "roles", expression = "java(user.getRoleNames())")
-    @Mapping(target = "permissions", expression = "java(user.getPermissionNames())")
+    @Mapping(target = "permissions", source = "roles", qualifiedByName = "permissionNames")
     @Mapping(target = "primaryRole", expression = "java(user.getPrimaryRole() != null ? user.getPrimaryRole().getName() : null)")
     UserResponse toResponse(User user);
 
     List<UserResponse> toResponseList(List<User> users);
 
+    @Mapping(target = "fullName", expression = "java(user.getFullName())")
+    @Mapping(target = "roles", expression = "java(user.getRoleNames())")
+    UserSuggestionResponse toSuggestion(User user);
+
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "email", ignore = true)
@@ -55,6 +61,11 @@ public interface UserMapper {
 
     List<AuditLogResponse> toAuditLogResponseList(List<AuditLog> auditLogs);
 
+    // User id only (read off the lazy proxy): the name would load each user, callers fill it in if needed
+    @Mapping(source = "user.id", target = "userId")
+    @Mapping(target = "userName", ignore = true)
+    AuditLogResponse toAuditLogRow(AuditLog auditLog);
+
     @Named("getUserFullName")
     default String getUserFullName(String firstName) {
         return firstName; // Will be replaced with actual full name in service
@@ -0,0 +1,37 @@
+package com.lovedev.api.model.dto.request;
+
+import com.lovedev.api.model.enums.AuditAction;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+public class AuditLogSearchRequest {
+
+    /**
+     * Filter by the user who performed the action
+     */
+    private UUID userId;
+
+    private AuditAction action;
+
+    /**
+     * Filter by affected entity, e.g. entityType "User" and its id
+     */
+    private String entityType;
+    private String entityId;
+
+    /**
+     * Created at or after from, and before to
+     */
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    /**
+     * JSON object the old/new value must contain (JSONB @>)
+     * Example: {"status": "BANNED"} on newValue finds every change to BANNED
+     */
+    private String oldValue;
+    private String newValue;
+}
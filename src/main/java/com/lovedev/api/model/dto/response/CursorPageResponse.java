@@ -0,0 +1,40 @@
+package com.lovedev.api.model.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination response wrapper
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Cursor-paginated response wrapper")
+public class CursorPageResponse<T> {
+
+    @Schema(description = "List of items in current page")
+    private List<T> content;
+
+    @Schema(description = "Number of items requested per page", example = "10")
+    private int size;
+
+    @Schema(description = "Opaque cursor for the next page; absent on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Does next page exist?", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Total number of items, only when requested", example = "100")
+    private Long totalElements;
+
+    @Schema(description = "Is totalElements a planner estimate rather than an exact count?", example = "true")
+    private Boolean totalEstimated;
+}
@@ -0,0 +1,37 @@
+package com.lovedev.api.model.dto.response;
+
+import com.lovedev.api.model.enums.UserStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Lightweight user entry for admin typeahead")
+public class UserSuggestionResponse {
+
+    @Schema(description = "User unique identifier", example = "123e4567-e89b-12d3-a456-426614174000")
+    private UUID id;
+
+    @Schema(description = "User email address", example = "john.doe@example.com")
+    private String email;
+
+    @Schema(description = "User full name (first + last)", example = "John Doe")
+    private String fullName;
+
+    @Schema(description = "Account status", example = "ACTIVE")
+    private UserStatus status;
+
+    @Schema(description = "Email verification status", example = "true")
+    private Boolean emailVerified;
+
+    @Schema(description = "Role names", example = "[\"ROLE_USER\"]")
+    private Set<String> roles;
+}
@@ -12,10 +12,10 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "audit_logs", indexes = {
-        @Index(name = "idx_audit_user", columnList = "user_id"),
+        @Index(name = "idx_audit_user_created", columnList = "user_id, created_at DESC, id DESC"),
         @Index(name = "idx_audit_action", columnList = "action"),
-        @Index(name = "idx_audit_entity", columnList = "entity_type, entity_id"),
-        @Index(name = "idx_audit_created", columnList = "created_at")
+        @Index(name = "idx_audit_entity_created", columnList = "entity_type, entity_id, created_at DESC, id DESC")
+        // idx_audit_created (BRIN) and the GIN indexes on old_value/new_value live in the migrations
 })
 @Getter
 @Setter
@@ -10,9 +10,9 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "notifications", indexes = {
-        @Index(name = "idx_notification_user", columnList = "user_id"),
-        @Index(name = "idx_notification_status", columnList = "status"),
-        @Index(name = "idx_notification_created", columnList = "created_at")
+        @Index(name = "idx_notification_user_created", columnList = "user_id, created_at DESC, id DESC"),
+        @Index(name = "idx_notification_user_status_created", columnList = "user_id, status, created_at DESC, id DESC"),
+        @Index(name = "idx_notification_status", columnList = "status")
 })
 @Getter
 @Setter
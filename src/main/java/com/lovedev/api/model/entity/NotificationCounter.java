@@ -0,0 +1,35 @@
+package com.lovedev.api.model.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Per-user notification counts, maintained by NotificationCounterRepository
+ */
+@Entity
+@Table(name = "notification_counters")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationCounter {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "unread_count", nullable = false)
+    @Builder.Default
+    private Long unreadCount = 0L;
+
+    @Column(name = "read_count", nullable = false)
+    @Builder.Default
+    private Long readCount = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
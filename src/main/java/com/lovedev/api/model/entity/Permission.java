@@ -1,5 +1,6 @@
 package com.lovedev.api.model.entity;
 
+import com.lovedev.api.security.PermissionMatrixListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,6 +10,7 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(PermissionMatrixListener.class)
 @Table(name = "permissions",
         indexes = {
                 @Index(name = "idx_permissions_name", columnList = "name"),
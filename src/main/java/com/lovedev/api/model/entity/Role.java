@@ -1,5 +1,6 @@
 package com.lovedev.api.model.entity;
 
+import com.lovedev.api.security.PermissionMatrixListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,6 +10,7 @@ import java.util.Set;
 import java.util.UUID;
 
 @Entity
+@EntityListeners(PermissionMatrixListener.class)
 @Table(name = "roles", indexes = {
         @Index(name = "idx_roles_name", columnList = "name")
 })
@@ -45,7 +47,8 @@ public class Role {
     private Set<User> users = new HashSet<>();
 
     // Many-to-Many with Permissions
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy; request-path permission checks go through PermissionMatrix instead
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
@@ -80,9 +83,11 @@ public class Role {
 
     /**
      * Add permission to role
+     * Touches updatedAt so the role itself is dirty and entity listeners see the change.
      */
     public void addPermission(Permission permission) {
         this.permissions.add(permission);
+        this.updatedAt = LocalDateTime.now();
     }
 
     /**
@@ -90,6 +95,7 @@ public class Role {
      */
     public void removePermission(Permission permission) {
         this.permissions.remove(permission);
+        this.updatedAt = LocalDateTime.now();
     }
 
     /**
@@ -97,6 +103,7 @@ public class Role {
      */
     public void clearPermissions() {
         this.permissions.clear();
+        this.updatedAt = LocalDateTime.now();
     }
 
     /**
@@ -106,22 +113,6 @@ public class Role {
         return permissions.contains(permission);
     }
 
-    /**
-     * Check if role has permission by name
-     */
-    public boolean hasPermission(String permissionName) {
-        return permissions.stream()
-                .anyMatch(p -> p.getName().equals(permissionName));
-    }
-
-    /**
-     * Check if role has permission for resource and action
-     */
-    public boolean hasPermission(String resource, String action) {
-        return permissions.stream()
-                .anyMatch(p -> p.matches(resource, action));
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -90,7 +90,8 @@ public class User {
     private LocalDateTime deletedAt;
 
     // Many-to-Many relationship with Roles
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Lazy by default; use the fetch-plan methods on UserRepository when roles are needed
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -207,62 +208,6 @@ public class User {
                 .allMatch(roles::contains);
     }
 
-    // ============================================
-    // Permission Helper Methods
-    // ============================================
-
-    /**
-     * Get all permissions from all roles
-     */
-    public Set<Permission> getPermissions() {
-        return roles.stream()
-                .flatMap(role -> role.getPermissions().stream())
-                .collect(Collectors.toSet());
-    }
-
-    /**
-     * Get permission names
-     */
-    public Set<String> getPermissionNames() {
-        return getPermissions().stream()
-                .map(Permission::getName)
-                .collect(Collectors.toSet());
-    }
-
-    /**
-     * Check if user has specific permission by name
-     */
-    public boolean hasPermission(String permissionName) {
-        return roles.stream()
-                .anyMatch(role -> role.hasPermission(permissionName));
-    }
-
-    /**
-     * Check if user has permission for resource and action
-     */
-    public boolean hasPermission(String resource, String action) {
-        return getPermissions().stream()
-                .anyMatch(p -> p.matches(resource, action));
-    }
-
-    /**
-     * Check if user has any of the specified permissions
-     */
-    public boolean hasAnyPermission(String... permissionNames) {
-        Set<String> userPermissions = getPermissionNames();
-        return Arrays.stream(permissionNames)
-                .anyMatch(userPermissions::contains);
-    }
-
-    /**
-     * Check if user has all of the specified permissions
-     */
-    public boolean hasAllPermissions(String... permissionNames) {
-        Set<String> userPermissions = getPermissionNames();
-        return Arrays.stream(permissionNames)
-                .allMatch(userPermissions::contains);
-    }
-
     // ============================================
     // Convenience Role Check Methods
     // ============================================
@@ -0,0 +1,6 @@
+package com.lovedev.api.model.enums;
+
+public enum MailOutboxStatus {
+    PENDING,        // Waiting for (re)delivery
+    DEAD            // Rejected by the server, or gave up after the maximum number of attempts
+}
@@ -0,0 +1,6 @@
+package com.lovedev.api.model.enums;
+
+public enum PushOutboxStatus {
+    PENDING,        // Waiting for (re)delivery
+    DEAD            // Gave up after the maximum number of attempts
+}
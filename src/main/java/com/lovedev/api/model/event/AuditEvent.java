@@ -0,0 +1,35 @@
+package com.lovedev.api.model.event;
+
+import com.lovedev.api.model.enums.AuditAction;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One audit_logs row, captured by AuditService and written after commit by AuditLogWriter
+ * Request details are copied when the action happens; id is assigned by the writer.
+ * Also the line format of the writer's spill file, so it must stay Jackson-friendly.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEvent {
+
+    private UUID id;
+    private UUID userId;
+    private AuditAction action;
+    private String entityType;
+    private String entityId;
+    private Map<String, Object> oldValue;
+    private Map<String, Object> newValue;
+    private String ipAddress;
+    private String userAgent;
+    private String description;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.lovedev.api.model.event;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published after notifications rows are inserted; userIds and notificationIds are index-aligned
+ * One event covers a single notification or a whole broadcast chunk.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class NotificationCreatedEvent {
+
+    private final List<UUID> userIds;
+    private final List<UUID> notificationIds;
+
+    public static NotificationCreatedEvent of(UUID userId, UUID notificationId) {
+        return new NotificationCreatedEvent(List.of(userId), List.of(notificationId));
+    }
+
+    public static NotificationCreatedEvent of(List<UUID> userIds, List<UUID> notificationIds) {
+        if (userIds.size() != notificationIds.size()) {
+            throw new IllegalArgumentException("userIds and notificationIds must have the same size");
+        }
+        return new NotificationCreatedEvent(List.copyOf(userIds), List.copyOf(notificationIds));
+    }
+}
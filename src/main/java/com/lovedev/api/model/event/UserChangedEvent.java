@@ -0,0 +1,37 @@
+package com.lovedev.api.model.event;
+
+import com.lovedev.api.model.entity.User;
+import com.lovedev.api.model.enums.UserStatus;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published after a user's searchable fields (name, email, status, verification, roles) change
+ * Carries a snapshot of those fields so listeners never have to reload the user.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class UserChangedEvent {
+
+    private final UUID userId;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final UserStatus status;
+    private final Boolean emailVerified;
+    private final Set<String> roleNames;
+    private final boolean deleted;
+
+    public static UserChangedEvent of(User user) {
+        return new UserChangedEvent(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getStatus(), user.getEmailVerified(), Set.copyOf(user.getRoleNames()), false);
+    }
+
+    public static UserChangedEvent deleted(UUID userId) {
+        return new UserChangedEvent(userId, null, null, null, null, null, Set.of(), true);
+    }
+}
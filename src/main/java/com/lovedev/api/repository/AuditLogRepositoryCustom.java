@@ -0,0 +1,27 @@
+package com.lovedev.api.repository;
+
+import com.lovedev.api.model.dto.request.AuditLogSearchRequest;
+import com.lovedev.api.model.entity.AuditLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Audit queries whose WHERE clause depends on which filters are set (see AuditLogRepositoryImpl)
+ * oldValue/newValue filters must already be validated JSON objects.
+ */
+public interface AuditLogRepositoryCustom {
+
+    /**
+     * Newest first, strictly before (createdAt, id)
+     */
+    List<AuditLog> findPageBefore(AuditLogSearchRequest filter, LocalDateTime createdAt, UUID id, int limit);
+
+    /**
+     * Oldest first, through a server-side cursor; callers must hold a transaction and close the stream.
+     * Rows are detached as they are read, so memory stays flat however many rows match.
+     */
+    Stream<AuditLog> stream(AuditLogSearchRequest filter);
+}
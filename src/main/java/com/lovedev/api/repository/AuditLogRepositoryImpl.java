@@ -0,0 +1,98 @@
+package com.lovedev.api.repository;
+
+import com.lovedev.api.model.dto.request.AuditLogSearchRequest;
+import com.lovedev.api.model.entity.AuditLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Native SQL, since JPQL has no JSONB containment: {@code new_value @> '{"status": "BANNED"}'} is
+ * answered by the jsonb_path_ops GIN indexes from V10__Add_Audit_Log_Query_Indexes.sql. Only the
+ * filters that are set make it into the WHERE clause, so the planner sees each query for what it is.
+ */
+class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AuditLog> findPageBefore(AuditLogSearchRequest filter, LocalDateTime createdAt, UUID id, int limit) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder sql = where(filter, params);
+        // The plain created_at bound lets the planner prune partitions; the row comparison breaks ties by id
+        sql.append(" AND a.created_at <= :cursorCreatedAt AND (a.created_at, a.id) < (:cursorCreatedAt, :cursorId)");
+        sql.append(" ORDER BY a.created_at DESC, a.id DESC LIMIT :limit");
+        params.put("cursorCreatedAt", createdAt);
+        params.put("cursorId", id);
+        params.put("limit", limit);
+
+        return bind(entityManager.createNativeQuery(sql.toString(), AuditLog.class), params).getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<AuditLog> stream(AuditLogSearchRequest filter) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        StringBuilder sql = where(filter, params);
+        sql.append(" ORDER BY a.created_at, a.id");
+
+        Query query = bind(entityManager.createNativeQuery(sql.toString(), AuditLog.class), params)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        return ((Stream<AuditLog>) query.getResultStream()).peek(entityManager::detach);
+    }
+
+    private static StringBuilder where(AuditLogSearchRequest filter, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder("SELECT a.* FROM audit_logs a WHERE 1 = 1");
+        if (filter.getUserId() != null) {
+            sql.append(" AND a.user_id = :userId");
+            params.put("userId", filter.getUserId());
+        }
+        if (filter.getAction() != null) {
+            sql.append(" AND a.action = :action");
+            params.put("action", filter.getAction().name());
+        }
+        if (filter.getEntityType() != null) {
+            sql.append(" AND a.entity_type = :entityType");
+            params.put("entityType", filter.getEntityType());
+        }
+        if (filter.getEntityId() != null) {
+            sql.append(" AND a.entity_id = :entityId");
+            params.put("entityId", filter.getEntityId());
+        }
+        if (filter.getFrom() != null) {
+            sql.append(" AND a.created_at >= :from");
+            params.put("from", filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND a.created_at < :to");
+            params.put("to", filter.getTo());
+        }
+        if (filter.getOldValue() != null) {
+            sql.append(" AND a.old_value @> CAST(:oldValue AS jsonb)");
+            params.put("oldValue", filter.getOldValue());
+        }
+        if (filter.getNewValue() != null) {
+            sql.append(" AND a.new_value @> CAST(:newValue AS jsonb)");
+            params.put("newValue", filter.getNewValue());
+        }
+        return sql;
+    }
+
+    private static Query bind(Query query, Map<String, Object> params) {
+        params.forEach(query::setParameter);
+        return query;
+    }
+}
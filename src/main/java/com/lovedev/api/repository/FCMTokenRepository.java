@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,6 +31,14 @@ public interface FCMTokenRepository extends JpaRepository<FCMToken, UUID> {
     @Query("UPDATE FCMToken f SET f.isActive = false, f.deactivatedAt = :deactivatedAt WHERE f.token = :token")
     void deactivateToken(@Param("token") String token, @Param("deactivatedAt") LocalDateTime deactivatedAt);
 
+    @Modifying
+    @Query("UPDATE FCMToken f SET f.isActive = false, f.deactivatedAt = :deactivatedAt WHERE f.token IN :tokens")
+    void deactivateTokens(@Param("tokens") Collection<String> tokens, @Param("deactivatedAt") LocalDateTime deactivatedAt);
+
+    @Modifying
+    @Query("UPDATE FCMToken f SET f.lastUsedAt = :lastUsedAt WHERE f.token IN :tokens")
+    void touchTokens(@Param("tokens") Collection<String> tokens, @Param("lastUsedAt") LocalDateTime lastUsedAt);
+
     @Modifying
     @Query("UPDATE FCMToken f SET f.isActive = false, f.deactivatedAt = :deactivatedAt WHERE f.user = :user")
     void deactivateAllUserTokens(@Param("user") User user, @Param("deactivatedAt") LocalDateTime deactivatedAt);
@@ -0,0 +1,58 @@
+package com.lovedev.api.repository;
+
+import com.lovedev.api.model.entity.MailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MailOutboxRepository extends JpaRepository<MailOutbox, UUID>, OutboxLeaseRepository {
+
+    // ============================================
+    // Dispatcher (MailOutboxDispatcher)
+    // Claim = lock due rows, skipping those another node holds, then lease them by
+    // pushing next_attempt_at forward. A node that dies mid-send releases its rows when the lease expires.
+    // ============================================
+
+    @Query(value = "SELECT id FROM mail_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Override
+    @Query("SELECT o.id FROM MailOutbox o WHERE o.id IN :ids AND o.attempts >= :maxAttempts")
+    List<UUID> findExhaustedIds(@Param("ids") Collection<UUID> ids, @Param("maxAttempts") int maxAttempts);
+
+    @Override
+    @Modifying
+    @Query("UPDATE MailOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil WHERE o.id IN :ids")
+    void lease(@Param("ids") Collection<UUID> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT o FROM MailOutbox o WHERE o.id IN :ids ORDER BY o.createdAt")
+    List<MailOutbox> findByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM MailOutbox o WHERE o.id IN :ids")
+    void deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE MailOutbox o SET o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError WHERE o.id IN :ids")
+    void reschedule(@Param("ids") Collection<UUID> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                    @Param("lastError") String lastError);
+
+    /**
+     * Dead-letter rows; the body is blanked, since rendered mails carry live one-time tokens
+     * (verification, password reset) that must not outlive the attempt to deliver them
+     */
+    @Override
+    @Modifying
+    @Query("UPDATE MailOutbox o SET o.status = com.lovedev.api.model.enums.MailOutboxStatus.DEAD, " +
+            "o.body = '', o.lastError = :lastError WHERE o.id IN :ids")
+    void markDead(@Param("ids") Collection<UUID> ids, @Param("lastError") String lastError);
+}
@@ -0,0 +1,76 @@
+package com.lovedev.api.repository;
+
+import com.lovedev.api.model.entity.NotificationCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Counter updates are single atomic statements: call them inside the transaction that writes notifications
+ */
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, UUID> {
+
+    /**
+     * Adds the deltas to each user's counters, creating missing rows (never below zero)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count, read_count, updated_at) " +
+            "SELECT u.id, GREATEST(:unread, 0), GREATEST(:read, 0), :now FROM users u WHERE u.id IN (:userIds) " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_count = GREATEST(notification_counters.unread_count + :unread, 0), " +
+            "read_count = GREATEST(notification_counters.read_count + :read, 0), " +
+            "updated_at = :now", nativeQuery = true)
+    int add(@Param("userIds") Collection<UUID> userIds,
+            @Param("unread") long unread,
+            @Param("read") long read,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET unread_count = 0, read_count = 0, updated_at = :now " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    void reset(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+
+    /**
+     * Takes notifications created before expiryDate off the counters; run right before dropping them
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_counters c SET " +
+            "unread_count = GREATEST(c.unread_count - x.unread, 0), " +
+            "read_count = GREATEST(c.read_count - x.read, 0), " +
+            "updated_at = :now " +
+            "FROM (SELECT user_id, COUNT(*) FILTER (WHERE status = 'UNREAD') AS unread, " +
+            "COUNT(*) FILTER (WHERE status = 'READ') AS read " +
+            "FROM notifications WHERE created_at < :expiryDate GROUP BY user_id) x " +
+            "WHERE c.user_id = x.user_id", nativeQuery = true)
+    int subtractCreatedBefore(@Param("expiryDate") LocalDateTime expiryDate, @Param("now") LocalDateTime now);
+
+    // ============================================
+    // Reconciliation
+    // Recounts from notifications and fixes rows that drifted. Rows touched after stableBefore
+    // are skipped: a concurrent transaction may have changed them after the recount's snapshot.
+    // ============================================
+
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count, read_count, updated_at) " +
+            "SELECT user_id, COUNT(*) FILTER (WHERE status = 'UNREAD'), COUNT(*) FILTER (WHERE status = 'READ'), :now " +
+            "FROM notifications GROUP BY user_id " +
+            "ON CONFLICT (user_id) DO UPDATE SET " +
+            "unread_count = EXCLUDED.unread_count, read_count = EXCLUDED.read_count, updated_at = EXCLUDED.updated_at " +
+            "WHERE notification_counters.updated_at < :stableBefore " +
+            "AND (notification_counters.unread_count <> EXCLUDED.unread_count " +
+            "OR notification_counters.read_count <> EXCLUDED.read_count)", nativeQuery = true)
+    int reconcileCounted(@Param("stableBefore") LocalDateTime stableBefore, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = "UPDATE notification_counters c SET unread_count = 0, read_count = 0, updated_at = :now " +
+            "WHERE c.updated_at < :stableBefore AND (c.unread_count <> 0 OR c.read_count <> 0) " +
+            "AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.user_id = c.user_id)", nativeQuery = true)
+    int reconcileEmpty(@Param("stableBefore") LocalDateTime stableBefore, @Param("now") LocalDateTime now);
+}
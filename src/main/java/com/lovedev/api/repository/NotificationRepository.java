@@ -22,19 +22,56 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
 
     Page<Notification> findByUserAndStatusOrderByCreatedAtDesc(User user, NotificationStatus status, Pageable pageable);
 
+    // ============================================
+    // Inbox keyset pagination: newest first, keyed on (createdAt, id)
+    // The redundant createdAt <= bound lets the index range scan start at the cursor.
+    // ============================================
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.createdAt <= :createdAt " +
+            "AND (n.createdAt < :createdAt OR n.id < :id) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageBefore(@Param("userId") UUID userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") UUID id,
+                                      Pageable pageable);
+
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.status = :status " +
+            "AND n.createdAt <= :createdAt AND (n.createdAt < :createdAt OR n.id < :id) " +
+            "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageBeforeByStatus(@Param("userId") UUID userId,
+                                              @Param("status") NotificationStatus status,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") UUID id,
+                                              Pageable pageable);
+
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user = :user AND n.status = :status")
     Long countByUserAndStatus(@Param("user") User user, @Param("status") NotificationStatus status);
 
+    /**
+     * Notifications created after the given one, oldest first (notification stream resume)
+     */
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId " +
+            "AND (n.createdAt > :createdAt OR (n.createdAt = :createdAt AND n.id > :id)) " +
+            "ORDER BY n.createdAt, n.id")
+    List<Notification> findCreatedAfter(@Param("userId") UUID userId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") UUID id,
+                                        Pageable pageable);
+
     @Query("SELECT n FROM Notification n WHERE n.user = :user AND n.status = 'UNREAD' ORDER BY n.createdAt DESC")
     List<Notification> findUnreadByUser(@Param("user") User user);
 
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = 'READ', n.readAt = :readAt WHERE n.id = :id AND n.status = 'UNREAD'")
+    int markAsReadIfUnread(@Param("id") UUID id, @Param("readAt") LocalDateTime readAt);
+
     @Modifying
     @Query("UPDATE Notification n SET n.status = 'READ', n.readAt = :readAt WHERE n.user = :user AND n.status = 'UNREAD'")
-    void markAllAsReadByUser(@Param("user") User user, @Param("readAt") LocalDateTime readAt);
+    int markAllAsReadByUser(@Param("user") User user, @Param("readAt") LocalDateTime readAt);
 
     @Modifying
-    @Query("DELETE FROM Notification n WHERE n.createdAt < :expiryDate")
-    void deleteExpiredNotifications(@Param("expiryDate") LocalDateTime expiryDate);
+    @Query("DELETE FROM Notification n WHERE n.id = :id AND n.status = :status")
+    int deleteByIdIfStatus(@Param("id") UUID id, @Param("status") NotificationStatus status);
 
     @Modifying
     @Query("DELETE FROM Notification n WHERE n.user = :user")
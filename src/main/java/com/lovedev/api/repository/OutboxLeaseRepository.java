@@ -0,0 +1,22 @@
+package com.lovedev.api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Lease bookkeeping every outbox table supports, so OutboxRetryPolicy can claim from any of them
+ * Implemented by PushOutboxRepository and MailOutboxRepository, which declare the queries.
+ */
+public interface OutboxLeaseRepository {
+
+    /**
+     * Claimed rows that already spent every attempt: their earlier outcomes were never recorded
+     */
+    List<UUID> findExhaustedIds(Collection<UUID> ids, int maxAttempts);
+
+    void lease(Collection<UUID> ids, LocalDateTime leaseUntil);
+
+    void markDead(Collection<UUID> ids, String lastError);
+}
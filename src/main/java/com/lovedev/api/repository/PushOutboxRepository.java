@@ -0,0 +1,95 @@
+package com.lovedev.api.repository;
+
+import com.lovedev.api.model.entity.PushOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PushOutboxRepository extends JpaRepository<PushOutbox, UUID>, OutboxLeaseRepository {
+
+    /**
+     * Queue one push per active token of each notification's user, if that user has push enabled
+     * Set-based, so a broadcast chunk costs one statement. Caller must flush pending notification inserts first.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO push_outbox (id, notification_id, token, status, attempts, next_attempt_at, created_at) " +
+            "SELECT gen_random_uuid(), n.id, f.token, 'PENDING', 0, :now, :now " +
+            "FROM notifications n " +
+            "JOIN notification_settings s ON s.user_id = n.user_id AND s.push_enabled = TRUE " +
+            "JOIN fcm_tokens f ON f.user_id = n.user_id AND f.is_active = TRUE " +
+            "WHERE n.id IN (:notificationIds)", nativeQuery = true)
+    int enqueueForNotifications(@Param("notificationIds") Collection<UUID> notificationIds,
+                                @Param("now") LocalDateTime now);
+
+    // ============================================
+    // Dispatcher (PushOutboxDispatcher)
+    // Claim = lock due rows, skipping those another node holds, then lease them by
+    // pushing next_attempt_at forward. A node that dies mid-send releases its rows when the lease expires.
+    // ============================================
+
+    @Query(value = "SELECT id FROM push_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockDueIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Pending rows for the same device tokens as the given rows that became due since: coalesced with them
+     */
+    @Query(value = "SELECT id FROM push_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now " +
+            "AND token IN (SELECT token FROM push_outbox WHERE id IN (:ids)) AND id NOT IN (:ids) " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<UUID> lockCoalescibleIds(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Override
+    @Query("SELECT o.id FROM PushOutbox o WHERE o.id IN :ids AND o.attempts >= :maxAttempts")
+    List<UUID> findExhaustedIds(@Param("ids") Collection<UUID> ids, @Param("maxAttempts") int maxAttempts);
+
+    @Override
+    @Modifying
+    @Query("UPDATE PushOutbox o SET o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil WHERE o.id IN :ids")
+    void lease(@Param("ids") Collection<UUID> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Query("SELECT o.id AS id, o.token AS token, o.attempts AS attempts, " +
+            "n.title AS title, n.body AS body, n.data AS data, n.createdAt AS createdAt " +
+            "FROM PushOutbox o JOIN o.notification n WHERE o.id IN :ids")
+    List<PushTask> findTasksByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM PushOutbox o WHERE o.id IN :ids")
+    void deleteByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE PushOutbox o SET o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError WHERE o.id IN :ids")
+    void reschedule(@Param("ids") Collection<UUID> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                    @Param("lastError") String lastError);
+
+    /**
+     * Puts rate-limited rows back without spending an attempt
+     */
+    @Modifying
+    @Query("UPDATE PushOutbox o SET o.attempts = o.attempts - 1, o.nextAttemptAt = :nextAttemptAt WHERE o.id IN :ids")
+    void defer(@Param("ids") Collection<UUID> ids, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    @Override
+    @Modifying
+    @Query("UPDATE PushOutbox o SET o.status = com.lovedev.api.model.enums.PushOutboxStatus.DEAD, " +
+            "o.lastError = :lastError WHERE o.id IN :ids")
+    void markDead(@Param("ids") Collection<UUID> ids, @Param("lastError") String lastError);
+
+    interface PushTask {
+        UUID getId();
+        String getToken();
+        Integer getAttempts();
+        String getTitle();
+        String getBody();
+        String getData();
+        LocalDateTime getCreatedAt();
+    }
+}
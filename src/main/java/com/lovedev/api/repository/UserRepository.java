@@ -2,18 +2,27 @@ package com.lovedev.api.repository;
 
 import com.lovedev.api.model.entity.User;
 import com.lovedev.api.model.enums.UserStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
 
     Optional<User> findByEmail(String email);
 
@@ -23,15 +32,79 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByPasswordResetToken(String token);
 
+    // ============================================
+    // Fetch plans
+    // User.roles is lazy; these load exactly what principal/profile/admin list views need.
+    // Permissions are resolved through PermissionMatrix, never from Role.permissions.
+    // ============================================
+
+    /**
+     * Principal / profile view: user row plus role names, one statement
+     */
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(UUID id);
+
+    /**
+     * Principal view for login by email, one statement
+     */
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByEmail(String email);
+
+    /**
+     * Admin list view: initializes roles for an already-loaded page of users in one statement
+     * (fetch joins cannot be paginated in SQL, so the page query itself stays join-free)
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findAllWithRolesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // ============================================
+    // Broadcast feed (NotificationBroadcastService)
+    // ============================================
+
+    /**
+     * Keyset chunk of user ids: pass the last id of the previous chunk, or the nil UUID to start
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UUID> findIdsAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    // ============================================
+    // Search index feed (UserSearchIndex)
+    // Scalar projections streamed in id order; callers must hold a transaction and close the stream.
+    // ============================================
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id AS id, u.email AS email, u.firstName AS firstName, u.lastName AS lastName, " +
+            "u.status AS status, u.emailVerified AS emailVerified FROM User u ORDER BY u.id")
+    Stream<SearchRow> streamSearchRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u.id AS userId, r.name AS roleName FROM User u JOIN u.roles r ORDER BY u.id")
+    Stream<RoleRow> streamRoleRows();
+
+    interface SearchRow {
+        UUID getId();
+        String getEmail();
+        String getFirstName();
+        String getLastName();
+        UserStatus getStatus();
+        Boolean getEmailVerified();
+    }
+
+    interface RoleRow {
+        UUID getUserId();
+        String getRoleName();
+    }
+
     /**
      * Search users with filters (UPDATED - removed role parameter)
-     * Keyword searches in: firstName, lastName, email
+     * Keyword searches in: firstName, lastName, email (case-insensitive, keyword must be lower-case)
+     * LOWER(col) LIKE is served by the trigram indexes from V3.
      */
     @Query("SELECT u FROM User u WHERE " +
             "(COALESCE(:keyword, '') = '' OR " +
-            "u.firstName LIKE CONCAT('%', :keyword, '%') OR " +
-            "u.lastName LIKE CONCAT('%', :keyword, '%') OR " +
-            "u.email LIKE CONCAT('%', :keyword, '%')) AND " +
+            "LOWER(u.firstName) LIKE CONCAT('%', :keyword, '%') OR " +
+            "LOWER(u.lastName) LIKE CONCAT('%', :keyword, '%') OR " +
+            "LOWER(u.email) LIKE CONCAT('%', :keyword, '%')) AND " +
             "(:status IS NULL OR u.status = :status) AND " +
             "(:emailVerified IS NULL OR u.emailVerified = :emailVerified)")
     Page<User> searchUsers(@Param("keyword") String keyword,
@@ -39,6 +112,44 @@ public interface UserRepository extends JpaRepository<User, UUID> {
                            @Param("emailVerified") Boolean emailVerified,
                            Pageable pageable);
 
+    /**
+     * Relevance-ranked keyword search (trigram indexes from V3)
+     * Matches substrings of first name, last name or email and orders by the best
+     * trigram similarity across the three to the term. Keyword and term are the same lower-case
+     * text, the keyword with LIKE wildcards escaped for matching and the term raw for ranking.
+     * Pageable must be unsorted; ordering is by rank.
+     */
+    @Query(value = "SELECT u.* FROM users u " +
+            "WHERE u.deleted_at IS NULL " +
+            "AND (LOWER(u.first_name) LIKE '%' || :keyword || '%' " +
+            "     OR LOWER(u.last_name) LIKE '%' || :keyword || '%' " +
+            "     OR LOWER(u.email) LIKE '%' || :keyword || '%') " +
+            "AND (CAST(:status AS VARCHAR) IS NULL OR u.status = CAST(:status AS VARCHAR)) " +
+            "AND (CAST(:emailVerified AS BOOLEAN) IS NULL OR u.email_verified = CAST(:emailVerified AS BOOLEAN)) " +
+            "AND (CAST(:roleName AS VARCHAR) IS NULL OR EXISTS (" +
+            "     SELECT 1 FROM user_roles ur JOIN roles r ON r.id = ur.role_id " +
+            "     WHERE ur.user_id = u.id AND r.name = CAST(:roleName AS VARCHAR))) " +
+            "ORDER BY GREATEST(similarity(LOWER(u.first_name), :term), " +
+            "                  similarity(LOWER(u.last_name), :term), " +
+            "                  similarity(LOWER(u.email), :term)) DESC, u.id",
+            countQuery = "SELECT COUNT(*) FROM users u " +
+                    "WHERE u.deleted_at IS NULL " +
+                    "AND (LOWER(u.first_name) LIKE '%' || :keyword || '%' " +
+                    "     OR LOWER(u.last_name) LIKE '%' || :keyword || '%' " +
+                    "     OR LOWER(u.email) LIKE '%' || :keyword || '%') " +
+                    "AND (CAST(:status AS VARCHAR) IS NULL OR u.status = CAST(:status AS VARCHAR)) " +
+                    "AND (CAST(:emailVerified AS BOOLEAN) IS NULL OR u.email_verified = CAST(:emailVerified AS BOOLEAN)) " +
+                    "AND (CAST(:roleName AS VARCHAR) IS NULL OR EXISTS (" +
+                    "     SELECT 1 FROM user_roles ur JOIN roles r ON r.id = ur.role_id " +
+                    "     WHERE ur.user_id = u.id AND r.name = CAST(:roleName AS VARCHAR)))",
+            nativeQuery = true)
+    Page<User> searchUsersRanked(@Param("keyword") String keyword,
+                                 @Param("term") String term,
+                                 @Param("status") String status,
+                                 @Param("emailVerified") Boolean emailVerified,
+                                 @Param("roleName") String roleName,
+                                 Pageable pageable);
+
     /**
      * Find users by role name (NEW - uses join with roles table)
      */
@@ -142,4 +253,22 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * Count users by status
      */
     Long countByStatus(UserStatus status);
+
+    /**
+     * Planner estimate of the users table row count (pg_class.reltuples)
+     * Constant time; -1 if the table has never been analyzed. Includes soft-deleted rows.
+     */
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass('users')",
+            nativeQuery = true)
+    long estimateCount();
+
+    /**
+     * Find IDs of users deactivated, banned or deleted since the given time
+     * Native query so soft-deleted rows (hidden by @Where) are included
+     */
+    @Query(value = "SELECT u.id FROM users u " +
+            "WHERE (u.status <> 'ACTIVE' OR u.deleted_at IS NOT NULL) " +
+            "AND COALESCE(u.deleted_at, u.updated_at) > :since",
+            nativeQuery = true)
+    List<UUID> findIdsDeactivatedSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
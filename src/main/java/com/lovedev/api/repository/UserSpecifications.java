@@ -0,0 +1,59 @@
+package com.lovedev.api.repository;
+
+import com.lovedev.api.model.entity.Role;
+import com.lovedev.api.model.entity.User;
+import com.lovedev.api.model.enums.UserStatus;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Specifications for admin user search
+ * The role filter is an EXISTS subquery rather than a join, so results need no DISTINCT
+ * and can be keyset-paginated.
+ */
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> search(String keyword, UserStatus status,
+                                             Boolean emailVerified, String roleName) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (keyword != null && !keyword.isEmpty()) {
+                String pattern = "%" + keyword.toLowerCase() + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("firstName")), pattern),
+                        cb.like(cb.lower(root.get("lastName")), pattern),
+                        cb.like(cb.lower(root.get("email")), pattern)));
+            }
+
+            if (status != null) {
+                predicates.add(cb.equal(root.get("status"), status));
+            }
+
+            if (emailVerified != null) {
+                predicates.add(cb.equal(root.get("emailVerified"), emailVerified));
+            }
+
+            if (roleName != null && !roleName.isEmpty()) {
+                Subquery<Integer> hasRole = query.subquery(Integer.class);
+                Root<User> sub = hasRole.from(User.class);
+                Join<User, Role> roles = sub.join("roles");
+                hasRole.select(cb.literal(1))
+                        .where(cb.equal(sub.get("id"), root.get("id")),
+                                cb.equal(roles.get("name"), roleName));
+                predicates.add(cb.exists(hasRole));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -1,11 +1,13 @@
 package com.lovedev.api.security;
 
 import com.lovedev.api.model.entity.User;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.io.Serial;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -14,55 +16,101 @@ import java.util.UUID;
 /**
  * Custom UserDetails implementation with RBAC support
  * Contains user information and permissions needed for authentication
+ * Role and permission lookups are precomputed once per principal, so every
+ * check is a constant-time, allocation-free lookup.
  */
 @Getter
 public class CustomUserDetails implements UserDetails {
 
+    private static final String ROLE_PREFIX = "ROLE_";
+
     private final UUID id;
     private final String email;
     private final String password;
     private final Collection<? extends GrantedAuthority> authorities;
     private final boolean enabled;
 
+    private final Set<String> roles;
+    private final Set<String> permissions;
+
+    // Role names without the ROLE_ prefix, so hasRole("ADMIN") needs no concatenation
+    @Getter(AccessLevel.NONE)
+    private final Set<String> unprefixedRoles;
+
+    // Bitset over a PermissionMatrix snapshot; answers every permission check
+    @Getter(AccessLevel.NONE)
+    private final PermissionMatrix.Grants grants;
+
     public CustomUserDetails(
             UUID id,
             String email,
             String password,
             Collection<? extends GrantedAuthority> authorities,
-            boolean enabled) {
+            boolean enabled,
+            PermissionMatrix.Grants grants) {
         this.id = id;
         this.email = email;
         this.password = password;
         this.authorities = authorities;
         this.enabled = enabled;
+
+        Set<String> roleSet = new HashSet<>();
+        Set<String> unprefixedRoleSet = new HashSet<>();
+        Set<String> permissionSet = new HashSet<>();
+        for (GrantedAuthority authority : authorities) {
+            String auth = authority.getAuthority();
+            if (auth.startsWith(ROLE_PREFIX)) {
+                roleSet.add(auth);
+                unprefixedRoleSet.add(auth.substring(ROLE_PREFIX.length()));
+            } else {
+                permissionSet.add(auth);
+            }
+        }
+        this.roles = Set.copyOf(roleSet);
+        this.unprefixedRoles = Set.copyOf(unprefixedRoleSet);
+        this.permissions = Set.copyOf(permissionSet);
+        this.grants = grants;
     }
 
     /**
-     * Build CustomUserDetails from User entity
-     * Converts both roles and permissions to Spring Security authorities
+     * Recompute the lookup tables on deserialization; the grants keep their own snapshot
      */
-    public static CustomUserDetails build(User user) {
-        Set<GrantedAuthority> authorities = new HashSet<>();
-
-        // Add roles as authorities (with ROLE_ prefix)
-        user.getRoles().forEach(role -> {
-            authorities.add(new SimpleGrantedAuthority(role.getName()));
+    @Serial
+    private Object readResolve() {
+        return new CustomUserDetails(id, email, password, authorities, enabled, grants);
+    }
 
-            // Add permissions from each role as authorities (without ROLE_ prefix)
-            role.getPermissions().forEach(permission -> {
-                authorities.add(new SimpleGrantedAuthority(permission.getName()));
-            });
-        });
+    /**
+     * Build CustomUserDetails from User entity with permissions resolved by PermissionMatrix,
+     * so role permission collections are never touched
+     */
+    public static CustomUserDetails build(User user, PermissionMatrix.Grants grants) {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        user.getRoles().forEach(role -> authorities.add(new SimpleGrantedAuthority(role.getName())));
+        grants.getNames().forEach(permission -> authorities.add(new SimpleGrantedAuthority(permission)));
 
         return new CustomUserDetails(
                 user.getId(),
                 user.getEmail(),
                 user.getPassword(),
                 authorities,
-                user.isActive()
+                user.isActive(),
+                grants
         );
     }
 
+    /**
+     * Build CustomUserDetails from access token claims, with permissions decoded by PermissionMatrix
+     * (stateless auth mode). No password is carried; the token itself is the credential.
+     */
+    public static CustomUserDetails build(UUID id, String email, Collection<String> roles, PermissionMatrix.Grants grants) {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        roles.forEach(role -> authorities.add(new SimpleGrantedAuthority(role)));
+        grants.getNames().forEach(permission -> authorities.add(new SimpleGrantedAuthority(permission)));
+
+        return new CustomUserDetails(id, email, null, authorities, true, grants);
+    }
+
     // ============================================
     // UserDetails Interface Methods
     // ============================================
@@ -110,13 +158,6 @@ public class CustomUserDetails implements UserDetails {
      * Get only role authorities (authorities that start with ROLE_)
      */
     public Set<String> getRoles() {
-        Set<String> roles = new HashSet<>();
-        for (GrantedAuthority authority : authorities) {
-            String auth = authority.getAuthority();
-            if (auth.startsWith("ROLE_")) {
-                roles.add(auth);
-            }
-        }
         return roles;
     }
 
@@ -124,13 +165,6 @@ public class CustomUserDetails implements UserDetails {
      * Get only permission authorities (authorities that don't start with ROLE_)
      */
     public Set<String> getPermissions() {
-        Set<String> permissions = new HashSet<>();
-        for (GrantedAuthority authority : authorities) {
-            String auth = authority.getAuthority();
-            if (!auth.startsWith("ROLE_")) {
-                permissions.add(auth);
-            }
-        }
         return permissions;
     }
 
@@ -138,17 +172,23 @@ public class CustomUserDetails implements UserDetails {
      * Check if user has specific role
      */
     public boolean hasRole(String roleName) {
-        String roleToCheck = roleName.startsWith("ROLE_") ? roleName : "ROLE_" + roleName;
-        return authorities.stream()
-                .anyMatch(auth -> auth.getAuthority().equals(roleToCheck));
+        return roleName.startsWith(ROLE_PREFIX)
+                ? roles.contains(roleName)
+                : unprefixedRoles.contains(roleName);
     }
 
     /**
      * Check if user has specific permission
      */
     public boolean hasPermission(String permissionName) {
-        return authorities.stream()
-                .anyMatch(auth -> auth.getAuthority().equals(permissionName));
+        return grants.contains(permissionName);
+    }
+
+    /**
+     * Check if user has the permission for resource and action
+     */
+    public boolean hasPermission(String resource, String action) {
+        return grants.contains(resource, action);
     }
 
     /**
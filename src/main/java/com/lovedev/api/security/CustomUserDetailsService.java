@@ -22,6 +22,7 @@ import java.util.UUID;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final PermissionMatrix permissionMatrix;
 
     @Override
     @Transactional(readOnly = true)
@@ -31,31 +32,39 @@ public class CustomUserDetailsService implements UserDetailsService {
         // Try to parse as UUID first (for token-based auth)
         try {
             UUID userId = UUID.fromString(username);
-            User user = userRepository.findById(userId)
+            User user = userRepository.findWithRolesById(userId)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + username));
 
             log.debug("User found by ID: {}", user.getEmail());
-            return CustomUserDetails.build(user);
+            return buildPrincipal(user);
         } catch (IllegalArgumentException e) {
             // If not a UUID, treat as email
-            User user = userRepository.findByEmail(username)
+            User user = userRepository.findWithRolesByEmail(username)
                     .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + username));
 
             log.debug("User found by email: {}", user.getEmail());
-            return CustomUserDetails.build(user);
+            return buildPrincipal(user);
         }
     }
 
     /**
-     * Load user by ID (used for JWT authentication)
+     * Load user by ID (used for JWT authentication, usually via PrincipalCache)
      */
     @Transactional(readOnly = true)
-    public UserDetails loadUserById(UUID id) {
+    public CustomUserDetails loadUserById(UUID id) {
         log.debug("Loading user by ID: {}", id);
 
-        User user = userRepository.findById(id)
+        User user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        return CustomUserDetails.build(user);
+        return buildPrincipal(user);
     }
-}
\ No newline at end of file
+
+    /**
+     * Build principal for an already-loaded user
+     * Permissions come from PermissionMatrix, so only the user's roles need to be loaded.
+     */
+    public CustomUserDetails buildPrincipal(User user) {
+        return CustomUserDetails.build(user, permissionMatrix.forRoles(user.getRoleNames()));
+    }
+}
@@ -1,5 +1,8 @@
 package com.lovedev.api.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
@@ -9,25 +12,59 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.Date;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Component
 @Slf4j
 public class JwtTokenProvider {
 
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String CLAIM_EMAIL = "email";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_PERMISSIONS = "perms";
+    private static final String CLAIM_PERMISSION_INDEX_VERSION = "pv";
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+
     private final SecretKey secretKey;
+    private final JwtParser jwtParser;
+    private final Cache<ByteBuffer, Claims> verifiedTokens;
     private final long jwtExpirationMs;
     private final long refreshExpirationMs;
+    private final boolean statelessEnabled;
+    private final PermissionMatrix permissionMatrix;
 
     public JwtTokenProvider(
             @Value("${app.jwt.secret}") String secret,
             @Value("${app.jwt.expiration}") long jwtExpirationMs,
-            @Value("${app.jwt.refresh-expiration}") long refreshExpirationMs) {
+            @Value("${app.jwt.refresh-expiration}") long refreshExpirationMs,
+            @Value("${app.jwt.verified-token-cache-size:10000}") long verifiedTokenCacheSize,
+            @Value("${app.security.stateless.enabled:false}") boolean statelessEnabled,
+            PermissionMatrix permissionMatrix) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(secretKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedTokenCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .build();
         this.jwtExpirationMs = jwtExpirationMs;
         this.refreshExpirationMs = refreshExpirationMs;
+        this.statelessEnabled = statelessEnabled;
+        this.permissionMatrix = permissionMatrix;
     }
 
     public String generateAccessToken(Authentication authentication) {
@@ -35,18 +72,36 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        String roles = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .collect(Collectors.joining(","));
-
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder()
                 .subject(userDetails.getId().toString())
-                .claim("email", userDetails.getEmail())
-                .claim("roles", roles)
+                .claim(CLAIM_EMAIL, userDetails.getEmail())
                 .issuedAt(now)
-                .expiration(expiryDate)
-                .signWith(secretKey)
-                .compact();
+                .expiration(expiryDate);
+
+        if (statelessEnabled) {
+            // Roles by name, permissions as a bitset over the permission matrix ids
+            List<String> roles = new ArrayList<>();
+            List<String> permissions = new ArrayList<>();
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                String name = authority.getAuthority();
+                if (name.startsWith(ROLE_PREFIX)) {
+                    roles.add(name);
+                } else {
+                    permissions.add(name);
+                }
+            }
+
+            builder.claim(CLAIM_ROLES, String.join(",", roles))
+                    .claim(CLAIM_PERMISSIONS, permissionMatrix.encode(permissions))
+                    .claim(CLAIM_PERMISSION_INDEX_VERSION, permissionMatrix.getVersion());
+        } else {
+            String roles = authentication.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.joining(","));
+            builder.claim(CLAIM_ROLES, roles);
+        }
+
+        return builder.signWith(secretKey).compact();
     }
 
     public String generateRefreshToken(String userId) {
@@ -62,23 +117,35 @@ public class JwtTokenProvider {
     }
 
     public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(secretKey)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return getClaimsFromToken(token).getSubject();
+    }
 
-        return claims.getSubject();
+    /**
+     * Verify token and return its claims
+     * Recently verified tokens are served from a digest-keyed cache until they expire,
+     * so repeat requests with the same token skip signature verification.
+     *
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Claims getClaimsFromToken(String token) {
+        ByteBuffer key = digest(token);
+        Claims claims = verifiedTokens.getIfPresent(key);
+        if (claims == null) {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+            verifiedTokens.put(key, claims);
+        }
+        return claims;
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Parse and validate token in a single pass
+     *
+     * @return the verified claims, or null if the token is invalid
+     */
+    public Claims parseAndValidate(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (SecurityException ex) {
+            return getClaimsFromToken(token);
+        } catch (io.jsonwebtoken.security.SecurityException ex) {
             log.error("Invalid JWT signature");
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
@@ -86,13 +153,79 @@ public class JwtTokenProvider {
             log.error("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+        } catch (JwtException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * Build principal from access token claims (stateless auth mode)
+     *
+     * @return the principal, or null if the token carries no decodable permissions
+     *         (e.g. issued in database mode or against another permission set)
+     */
+    public CustomUserDetails getPrincipalFromClaims(Claims claims) {
+        PermissionMatrix.Grants permissions = permissionMatrix.decode(
+                claims.get(CLAIM_PERMISSIONS, String.class),
+                claims.get(CLAIM_PERMISSION_INDEX_VERSION, String.class));
+        if (permissions == null) {
+            return null;
+        }
+
+        String rolesClaim = claims.get(CLAIM_ROLES, String.class);
+        List<String> roles = rolesClaim == null || rolesClaim.isEmpty()
+                ? List.of()
+                : Arrays.asList(rolesClaim.split(","));
+
+        return CustomUserDetails.build(
+                UUID.fromString(claims.getSubject()),
+                claims.get(CLAIM_EMAIL, String.class),
+                roles,
+                permissions);
+    }
+
+    public boolean isStatelessEnabled() {
+        return statelessEnabled;
+    }
+
+    public boolean validateToken(String token) {
+        return parseAndValidate(token) != null;
     }
 
     public long getJwtExpirationMs() {
         return jwtExpirationMs;
     }
-}
\ No newline at end of file
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Keeps a verified token's claims only until the token itself expires
+     */
+    private static class UntilTokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            Date expiration = claims.getExpiration();
+            if (expiration == null) {
+                return 0L;
+            }
+            long remainingMs = expiration.getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0L, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
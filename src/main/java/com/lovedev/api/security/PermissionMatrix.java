@@ -0,0 +1,291 @@
+package com.lovedev.api.security;
+
+import com.lovedev.api.model.entity.Permission;
+import com.lovedev.api.model.entity.Role;
+import com.lovedev.api.repository.PermissionRepository;
+import com.lovedev.api.repository.RoleRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Compiled role -> permission matrix, the one permission id registry of the application
+ * Every permission gets a dense integer id (its position in name order) and every role a
+ * precomputed long[] bitset, so a user's permissions are the bitwise OR of their role bitsets
+ * and checks never touch JPA entities. The same ids are the bits of the permission claim of
+ * stateless access tokens; the version is a fingerprint of the ordered permission names, so
+ * tokens encoded against a different permission set are detected and fall back to a database
+ * lookup. Snapshots are immutable and swapped atomically (copy-on-write); role and permission
+ * changes mark it stale through PermissionMatrixListener.
+ */
+@Component
+@Slf4j
+public class PermissionMatrix {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final RoleRepository roleRepository;
+    private final PermissionRepository permissionRepository;
+
+    private volatile Snapshot snapshot;
+    private volatile boolean stale;
+
+    public PermissionMatrix(RoleRepository roleRepository, PermissionRepository permissionRepository) {
+        this.roleRepository = roleRepository;
+        this.permissionRepository = permissionRepository;
+    }
+
+    /**
+     * Permissions granted by the roles: the OR of their bitsets
+     */
+    public Grants forRoles(Collection<String> roleNames) {
+        Snapshot current = current();
+        long[] union = new long[current.words];
+        for (String roleName : roleNames) {
+            long[] bits = current.roleBits.get(roleName);
+            if (bits != null) {
+                for (int i = 0; i < bits.length; i++) {
+                    union[i] |= bits[i];
+                }
+            }
+        }
+        return new Grants(current, union);
+    }
+
+    /**
+     * Permissions given by name; names unknown to the matrix are skipped
+     */
+    public Grants forPermissions(Collection<String> permissionNames) {
+        Snapshot current = current();
+        long[] bits = new long[current.words];
+        for (String name : permissionNames) {
+            Integer id = current.permissionIds.get(name);
+            if (id != null) {
+                bits[id >>> 6] |= 1L << id;
+            }
+        }
+        return new Grants(current, bits);
+    }
+
+    /**
+     * Get the union of permission names granted by the roles
+     */
+    public Set<String> getPermissionNames(Collection<String> roleNames) {
+        return forRoles(roleNames).getNames();
+    }
+
+    // ============================================
+    // Token encoding (stateless auth mode)
+    // ============================================
+
+    /**
+     * Encode permission names as a base64url bitset
+     * Names unknown to the matrix are skipped.
+     */
+    public String encode(Collection<String> permissionNames) {
+        return ENCODER.encodeToString(BitSet.valueOf(forPermissions(permissionNames).bits).toByteArray());
+    }
+
+    /**
+     * Decode a base64url bitset from a token
+     *
+     * @return the permissions, or null if the token was encoded against another permission set
+     */
+    public Grants decode(String encoded, String version) {
+        Snapshot current = current();
+        if (encoded == null || !current.version.equals(version)) {
+            return null;
+        }
+
+        BitSet decoded = BitSet.valueOf(DECODER.decode(encoded));
+        if (decoded.length() > current.permissionNames.length) {
+            return null;
+        }
+        return new Grants(current, Arrays.copyOf(decoded.toLongArray(), current.words));
+    }
+
+    /**
+     * Current permission set version (fingerprint of ordered permission names)
+     */
+    public String getVersion() {
+        return current().version;
+    }
+
+    // ============================================
+    // Lifecycle
+    // ============================================
+
+    /**
+     * Mark the matrix out of date; the next check rebuilds it
+     * Does no I/O, so it is safe to call from transaction callbacks.
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Rebuild the matrix from the roles and permissions tables
+     */
+    public synchronized void refresh() {
+        // Cleared before loading, so an invalidation during the load triggers another rebuild
+        stale = false;
+        List<Permission> permissions = permissionRepository.findAll(Sort.by("name"));
+        List<Role> roles = roleRepository.findAllWithPermissions();
+
+        String[] names = new String[permissions.size()];
+        Map<String, Integer> permissionIds = new HashMap<>(names.length * 2);
+        Map<String, Map<String, Integer>> resourceActionIds = new HashMap<>();
+        for (int id = 0; id < names.length; id++) {
+            Permission permission = permissions.get(id);
+            names[id] = permission.getName();
+            permissionIds.put(permission.getName(), id);
+            resourceActionIds.computeIfAbsent(permission.getResource(), r -> new HashMap<>())
+                    .put(permission.getAction(), id);
+        }
+
+        int words = (names.length + 63) >>> 6;
+        Map<String, long[]> roleBits = new HashMap<>(roles.size() * 2);
+        for (Role role : roles) {
+            long[] bits = new long[words];
+            for (Permission permission : role.getPermissions()) {
+                Integer id = permissionIds.get(permission.getName());
+                if (id != null) {
+                    bits[id >>> 6] |= 1L << id;
+                }
+            }
+            roleBits.put(role.getName(), bits);
+        }
+
+        Map<String, Map<String, Integer>> frozenResourceActions = new HashMap<>();
+        resourceActionIds.forEach((resource, actions) -> frozenResourceActions.put(resource, Map.copyOf(actions)));
+
+        Snapshot previous = snapshot;
+        snapshot = new Snapshot(names, words, Map.copyOf(permissionIds),
+                Map.copyOf(frozenResourceActions), Map.copyOf(roleBits), fingerprint(names));
+        log.info("Permission matrix built: {} roles, {} permissions", roleBits.size(), names.length);
+        if (previous != null && !previous.version.equals(snapshot.version)) {
+            log.info("Permission set changed (version {}), older stateless tokens fall back to the database",
+                    snapshot.version);
+        }
+    }
+
+    /**
+     * Safety net for changes made by other nodes or directly in the database
+     */
+    @Scheduled(fixedDelayString = "${app.security.permission-matrix.refresh:300000}")
+    public void scheduledRefresh() {
+        if (snapshot == null) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.error("Failed to refresh permission matrix", e);
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null || stale) {
+            synchronized (this) {
+                if (snapshot == null || stale) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static String fingerprint(String[] names) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String name : names) {
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return ENCODER.encodeToString(Arrays.copyOf(digest.digest(), 6));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean test(long[] bits, int id) {
+        int word = id >>> 6;
+        return word < bits.length && (bits[word] & (1L << id)) != 0;
+    }
+
+    /**
+     * A set of permissions as a bitset over one matrix snapshot
+     * Holds on to its snapshot, so its ids stay valid whatever rebuilds happen later,
+     * also when a serialized principal is read back on another node.
+     */
+    public static final class Grants implements Serializable {
+
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final Snapshot snapshot;
+        private final long[] bits;
+
+        private Grants(Snapshot snapshot, long[] bits) {
+            this.snapshot = snapshot;
+            this.bits = bits;
+        }
+
+        /**
+         * Check if the permission is granted
+         */
+        public boolean contains(String permissionName) {
+            Integer id = snapshot.permissionIds.get(permissionName);
+            return id != null && test(bits, id);
+        }
+
+        /**
+         * Check if the permission for resource and action is granted
+         */
+        public boolean contains(String resource, String action) {
+            Map<String, Integer> actions = snapshot.resourceActionIds.get(resource);
+            Integer id = actions != null ? actions.get(action) : null;
+            return id != null && test(bits, id);
+        }
+
+        /**
+         * Get the granted permission names
+         */
+        public Set<String> getNames() {
+            Set<String> names = new HashSet<>();
+            for (int word = 0; word < bits.length; word++) {
+                long remaining = bits[word];
+                while (remaining != 0) {
+                    names.add(snapshot.permissionNames[(word << 6) + Long.numberOfTrailingZeros(remaining)]);
+                    remaining &= remaining - 1;
+                }
+            }
+            return names;
+        }
+    }
+
+    @AllArgsConstructor
+    private static final class Snapshot implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final String[] permissionNames;
+        private final int words;
+        private final Map<String, Integer> permissionIds;
+        private final Map<String, Map<String, Integer>> resourceActionIds;
+        private final Map<String, long[]> roleBits;
+        private final String version;
+    }
+}
@@ -0,0 +1,64 @@
+package com.lovedev.api.security;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener on Role and Permission
+ * Invalidates the PermissionMatrix and drops cached principals once per committed transaction
+ * that changed role or permission definitions. Beans are resolved lazily because Hibernate
+ * instantiates entity listeners while the EntityManagerFactory is still being built.
+ */
+@Component
+@Slf4j
+public class PermissionMatrixListener {
+
+    private static final Object TX_KEY = new Object();
+
+    private final ObjectProvider<PermissionMatrix> permissionMatrix;
+    private final ObjectProvider<PrincipalCache> principalCache;
+
+    public PermissionMatrixListener(
+            ObjectProvider<PermissionMatrix> permissionMatrix,
+            ObjectProvider<PrincipalCache> principalCache) {
+        this.permissionMatrix = permissionMatrix;
+        this.principalCache = principalCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate();
+            return;
+        }
+
+        // Register once per transaction, however many roles/permissions it touches
+        if (TransactionSynchronizationManager.hasResource(TX_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(TX_KEY, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TX_KEY);
+                if (status == STATUS_COMMITTED) {
+                    invalidate();
+                }
+            }
+        });
+    }
+
+    private void invalidate() {
+        permissionMatrix.getObject().invalidate();
+        principalCache.getObject().invalidateAll();
+        log.debug("Role/permission change committed, permission matrix invalidated");
+    }
+}
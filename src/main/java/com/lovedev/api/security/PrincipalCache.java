@@ -0,0 +1,84 @@
+package com.lovedev.api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Bounded, TTL-based cache of authenticated principals keyed by user id
+ * Lets JwtAuthenticationFilter authenticate repeat requests without touching the database.
+ * Hit/miss/eviction metrics are published under the "cache.*" meters with tag cache=principals.
+ */
+@Component
+@Slf4j
+public class PrincipalCache {
+
+    private static final String CACHE_NAME = "principals";
+
+    private final CustomUserDetailsService userDetailsService;
+    private final Cache<UUID, CustomUserDetails> cache;
+
+    public PrincipalCache(
+            CustomUserDetailsService userDetailsService,
+            MeterRegistry meterRegistry,
+            @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+            @Value("${app.security.principal-cache.expiration:300000}") long expirationMs) {
+        this.userDetailsService = userDetailsService;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(expirationMs))
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        log.info("Principal cache initialized (max-size: {}, expiration: {} ms)", maxSize, expirationMs);
+    }
+
+    /**
+     * Get principal for user, loading it from the database on a miss
+     */
+    public CustomUserDetails get(UUID userId) {
+        return cache.get(userId, userDetailsService::loadUserById);
+    }
+
+    /**
+     * Evict a user's principal
+     * Evicts immediately and again after the surrounding transaction commits,
+     * so a concurrent request cannot re-cache the pre-commit state.
+     */
+    public void invalidate(UUID userId) {
+        if (userId == null) {
+            return;
+        }
+
+        cache.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        }
+
+        log.debug("Principal cache invalidated for user: {}", userId);
+    }
+
+    /**
+     * Evict all principals (e.g. after role/permission definitions change)
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        log.debug("Principal cache cleared");
+    }
+}
@@ -0,0 +1,104 @@
+package com.lovedev.api.security;
+
+import com.lovedev.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory deny-list of user IDs for stateless auth mode
+ * Access tokens issued to a listed user at or before the revocation time are rejected.
+ * Entries expire after one access-token lifetime, since older tokens are already invalid.
+ * Local changes are applied immediately; changes made on other nodes are picked up
+ * by the scheduled refresh from the users table.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private final UserRepository userRepository;
+    private final boolean statelessEnabled;
+    private final long jwtExpirationMs;
+    private final long refreshIntervalMs;
+
+    private final Map<UUID, Instant> revokedAt = new ConcurrentHashMap<>();
+
+    public TokenRevocationList(
+            UserRepository userRepository,
+            @Value("${app.security.stateless.enabled:false}") boolean statelessEnabled,
+            @Value("${app.jwt.expiration}") long jwtExpirationMs,
+            @Value("${app.security.stateless.deny-list-refresh:30000}") long refreshIntervalMs) {
+        this.userRepository = userRepository;
+        this.statelessEnabled = statelessEnabled;
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.refreshIntervalMs = refreshIntervalMs;
+    }
+
+    /**
+     * Revoke all access tokens issued to the user so far
+     * Applied after the surrounding transaction commits, if any.
+     */
+    public void revoke(UUID userId) {
+        if (!statelessEnabled || userId == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokedAt.put(userId, Instant.now());
+                }
+            });
+        } else {
+            revokedAt.put(userId, Instant.now());
+        }
+    }
+
+    /**
+     * Check if a token issued to the user at the given time has been revoked
+     * JWT issued-at has second precision, so tokens from the revocation second are rejected too.
+     */
+    public boolean isRevoked(UUID userId, Date issuedAt) {
+        Instant revoked = revokedAt.get(userId);
+        if (revoked == null) {
+            return false;
+        }
+        return issuedAt == null || issuedAt.toInstant().getEpochSecond() <= revoked.getEpochSecond();
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.stateless.deny-list-refresh:30000}")
+    public void refresh() {
+        if (!statelessEnabled) {
+            return;
+        }
+
+        try {
+            Instant now = Instant.now();
+            Instant horizon = now.minusMillis(jwtExpirationMs);
+
+            // Drop entries older than any still-valid token
+            revokedAt.values().removeIf(instant -> instant.isBefore(horizon));
+
+            LocalDateTime since = LocalDateTime.now().minus(Duration.ofMillis(jwtExpirationMs + refreshIntervalMs));
+            List<UUID> deactivated = userRepository.findIdsDeactivatedSince(since);
+            deactivated.forEach(id -> revokedAt.putIfAbsent(id, now));
+
+            log.debug("Token deny-list refreshed: {} entries", revokedAt.size());
+        } catch (Exception e) {
+            log.error("Failed to refresh token deny-list", e);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.lovedev.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly partitions of audit_logs (see V9__Partition_Audit_Logs.sql)
+ * Pre-creates months-ahead months and archives partitions older than retention-months:
+ * the partition is detached (a brief lock on audit_logs), exported to archive-dir as gzip'd NDJSON
+ * (one row_to_json line per row, streamed through a server-side cursor), then dropped.
+ * A partition detached by a run that died before its export is picked up by the next run.
+ */
+@Component
+@Slf4j
+public class AuditLogArchiver {
+
+    private static final String PARENT_TABLE = "audit_logs";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARENT_TABLE + "_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    // pg_try_advisory_xact_lock key, so that only one node exports a given partition
+    private static final long ARCHIVE_LOCK_KEY = 0x6175646974L;
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate exportJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionMonths;
+    private final int monthsAhead;
+    private final Path archiveDir;
+
+    public AuditLogArchiver(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.audit.retention-months:6}") int retentionMonths,
+                            @Value("${app.audit.partitions.months-ahead:3}") int monthsAhead,
+                            @Value("${app.audit.archive-dir:./data/audit-archive}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Fetch size only streams inside a transaction (PostgreSQL cursors need autocommit off)
+        this.exportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.exportJdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionMonths = retentionMonths;
+        this.monthsAhead = monthsAhead;
+        this.archiveDir = Paths.get(archiveDir).toAbsolutePath().normalize();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "0 30 4 * * *") // Run at 4:30 AM daily
+    public void maintain() {
+        try {
+            createFuturePartitions();
+            detachExpiredPartitions();
+            archiveDetachedPartitions();
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.error("Audit log partition maintenance failed; retried on the next run", e);
+        }
+    }
+
+    private void createFuturePartitions() {
+        Map<YearMonth, String> existing = attachedPartitions();
+        YearMonth thisMonth = YearMonth.now();
+        for (int month = 0; month <= monthsAhead; month++) {
+            YearMonth start = thisMonth.plusMonths(month);
+            if (!existing.containsKey(start)) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(start) +
+                        " PARTITION OF " + PARENT_TABLE +
+                        " FOR VALUES FROM ('" + start.atDay(1) + "') TO ('" + start.plusMonths(1).atDay(1) + "')");
+                log.info("Created audit log partition {}", partitionName(start));
+            }
+        }
+    }
+
+    private void detachExpiredPartitions() {
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        for (Map.Entry<YearMonth, String> partition : attachedPartitions().entrySet()) {
+            if (!partition.getKey().isBefore(oldestKept)) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(tx -> {
+                // Detaching locks audit_logs: give up rather than queue inserts behind long queries
+                jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                jdbcTemplate.execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition.getValue());
+            });
+            log.info("Detached expired audit log partition {}", partition.getValue());
+        }
+    }
+
+    private void archiveDetachedPartitions() {
+        List<String> detached = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                        "WHERE n.nspname = current_schema() AND c.relkind = 'r' AND NOT c.relispartition " +
+                        "AND c.relname LIKE '" + PARENT_TABLE + "\\_p%'", String.class);
+        for (String table : detached) {
+            if (PARTITION_NAME.matcher(table).matches()) {
+                archive(table);
+            }
+        }
+    }
+
+    /**
+     * Export and drop in one transaction: the table is only dropped once its archive file is complete
+     */
+    private void archive(String table) {
+        Path target = archiveDir.resolve(table + ".ndjson.gz");
+        Long rows = transactionTemplate.execute(tx -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ARCHIVE_LOCK_KEY))) {
+                return null;
+            }
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(?) IS NOT NULL", Boolean.class, table))) {
+                return null;
+            }
+            long exported = export(table, target);
+            jdbcTemplate.execute("DROP TABLE " + table);
+            return exported;
+        });
+        if (rows != null) {
+            log.info("Archived audit log partition {}: {} rows to {}", table, rows, target);
+        }
+    }
+
+    private long export(String table, Path target) {
+        Path partial = target.resolveSibling(target.getFileName() + ".partial");
+        long[] rows = new long[1];
+        try {
+            Files.createDirectories(archiveDir);
+            try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(partial)), 64 * 1024), StandardCharsets.UTF_8)) {
+                exportJdbcTemplate.query("SELECT row_to_json(a)::text FROM " + table + " a ORDER BY a.created_at", rs -> {
+                    try {
+                        writer.write(rs.getString(1));
+                        writer.write('\n');
+                        rows[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not export " + table + " to " + target, e);
+        }
+        return rows[0];
+    }
+
+    /**
+     * Attached partitions by month, oldest first
+     */
+    private TreeMap<YearMonth, String> attachedPartitions() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = '" + PARENT_TABLE + "'::regclass", String.class);
+        TreeMap<YearMonth, String> partitions = new TreeMap<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                partitions.put(YearMonth.parse(matcher.group(1), PARTITION_SUFFIX), name);
+            }
+        }
+        return partitions;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARENT_TABLE + "_p" + month.format(PARTITION_SUFFIX);
+    }
+}
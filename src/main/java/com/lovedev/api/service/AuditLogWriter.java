@@ -0,0 +1,344 @@
+package com.lovedev.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lovedev.api.model.event.AuditEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batched, asynchronous writer behind AuditService
+ * Events are queued after their transaction commits, in a bounded in-memory buffer. One background
+ * thread drains it into audit_logs with JDBC batch inserts (rewritten into multi-row INSERTs by the
+ * driver) every batch-size events or flush-interval ms, whichever comes first. When the buffer is full
+ * or a flush fails, events are appended to an NDJSON spill file instead, and replayed once the database
+ * takes writes again. Rows carry their id from the first attempt and inserts ignore conflicts, so a replay that
+ * is interrupted halfway never duplicates rows. A batch the database rejects for its content (e.g. no audit_logs
+ * partition for an event's month) is retried row by row, and the rows it refuses are parked in
+ * a .parked file next to the spill file for manual handling instead of blocking every later write.
+ */
+@Component
+@Slf4j
+public class AuditLogWriter {
+
+    // user_id through a subselect: a user deleted before the flush becomes NULL (like ON DELETE SET NULL)
+    private static final String INSERT_AUDIT_LOG = "INSERT INTO audit_logs " +
+            "(id, user_id, action, entity_type, entity_id, old_value, new_value, ip_address, user_agent, description, created_at) " +
+            "VALUES (?, (SELECT u.id FROM users u WHERE u.id = ?), ?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb), ?, ?, ?, ?) " +
+            "ON CONFLICT DO NOTHING";
+    private static final String REPLAY_SUFFIX = ".replay";
+    private static final String PARKED_SUFFIX = ".parked";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long spillRetryNanos;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path parkedFile;
+    private final Object spillLock = new Object();
+
+    private volatile boolean running;
+    private Thread flusher;
+    private long lastReplayAttempt;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          ObjectMapper objectMapper,
+                          @Value("${app.audit.buffer-size:10000}") int bufferSize,
+                          @Value("${app.audit.batch-size:500}") int batchSize,
+                          @Value("${app.audit.flush-interval:1000}") long flushIntervalMillis,
+                          @Value("${app.audit.spill-file:./data/audit-spill.ndjson}") String spillFile,
+                          @Value("${app.audit.spill-retry-interval:30000}") long spillRetryMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.spillRetryNanos = TimeUnit.MILLISECONDS.toNanos(spillRetryMillis);
+        this.spillFile = Paths.get(spillFile).toAbsolutePath().normalize();
+        this.replayFile = Paths.get(this.spillFile + REPLAY_SUFFIX);
+        this.parkedFile = Paths.get(this.spillFile + PARKED_SUFFIX);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        lastReplayAttempt = System.nanoTime() - spillRetryNanos;
+        flusher = new Thread(this::run, "audit-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Drains what is buffered before the DataSource goes away; later events go to the spill file
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 10_000);
+        List<AuditEvent> left = new ArrayList<>();
+        buffer.drainTo(left);
+        if (!left.isEmpty()) {
+            spill(left);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuditEvent(AuditEvent event) {
+        if (!running || !buffer.offer(event)) {
+            spill(List.of(event));
+        }
+    }
+
+    // ============================================
+    // Flusher
+    // ============================================
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AuditEvent first = buffer.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    replaySpillIfDue();
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    buffer.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditEvent next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                boolean flushed = flush(batch);
+                batch.clear();
+                if (flushed) {
+                    replaySpillIfDue();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                spill(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Audit writer failed to handle {} events; spilling them", batch.size(), e);
+                spill(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private boolean flush(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            if (event.getId() == null) {
+                event.setId(UUID.randomUUID());
+            }
+        }
+        try {
+            insertOrPark(batch);
+            log.debug("Flushed {} audit logs", batch.size());
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Audit flush of {} events failed, spilling them: {}", batch.size(), e.getMessage());
+            spill(batch);
+            return false;
+        }
+    }
+
+    /**
+     * Inserts the events; if the batch is rejected for its content, row by row, parking the rows
+     * the database refuses. Unavailability still throws, so the caller keeps the events.
+     *
+     * @return the number of events inserted
+     */
+    private int insertOrPark(List<AuditEvent> events) {
+        try {
+            insert(events);
+            return events.size();
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Audit batch of {} events rejected, inserting row by row: {}", events.size(), e.getMessage());
+        }
+
+        int inserted = 0;
+        List<AuditEvent> rejected = new ArrayList<>();
+        for (AuditEvent event : events) {
+            try {
+                insert(List.of(event));
+                inserted++;
+            } catch (DataIntegrityViolationException e) {
+                log.error("Parking audit event {} {} at {}: {}",
+                        event.getAction(), event.getId(), event.getCreatedAt(), e.getMessage());
+                rejected.add(event);
+            }
+        }
+        append(parkedFile, rejected);
+        return inserted;
+    }
+
+    private void insert(List<AuditEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (AuditEvent event : events) {
+            rows.add(new Object[]{
+                    event.getId(),
+                    event.getUserId(),
+                    event.getAction().name(),
+                    event.getEntityType(),
+                    event.getEntityId(),
+                    toJson(event.getOldValue()),
+                    toJson(event.getNewValue()),
+                    event.getIpAddress(),
+                    event.getUserAgent(),
+                    event.getDescription(),
+                    Timestamp.valueOf(event.getCreatedAt())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG, rows);
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            // Keep the row rather than failing the whole batch over one value
+            log.error("Could not serialize audit value, storing NULL: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    // ============================================
+    // Spill file
+    // ============================================
+
+    private void spill(List<AuditEvent> events) {
+        append(spillFile, events);
+    }
+
+    private void append(Path file, List<AuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        StringBuilder lines = new StringBuilder();
+        for (AuditEvent event : events) {
+            if (event.getId() == null) {
+                event.setId(UUID.randomUUID());
+            }
+            try {
+                lines.append(objectMapper.writeValueAsString(event)).append('\n');
+            } catch (JsonProcessingException e) {
+                log.error("Dropping audit event that cannot be serialized: {} {}", event.getAction(), event.getId(), e);
+            }
+        }
+        synchronized (spillLock) {
+            try {
+                Files.createDirectories(file.getParent());
+                try (FileChannel channel = FileChannel.open(file,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+                    while (bytes.hasRemaining()) {
+                        channel.write(bytes);
+                    }
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                log.error("Could not write {} audit events to {}; they are lost", events.size(), file, e);
+            }
+        }
+    }
+
+    /**
+     * Re-inserts spilled events, at most once per spill-retry-interval (when idle or after a good flush)
+     * The spill file is renamed first so new spills go to a fresh file; the renamed file is deleted
+     * only when all of it is in the database or parked, otherwise the next attempt starts it over.
+     */
+    private void replaySpillIfDue() {
+        long now = System.nanoTime();
+        if (now - lastReplayAttempt < spillRetryNanos) {
+            return;
+        }
+        lastReplayAttempt = now;
+        synchronized (spillLock) {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spillFile)) {
+                    return;
+                }
+                try {
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    log.error("Could not move audit spill file {} for replay", spillFile, e);
+                    return;
+                }
+            }
+        }
+
+        long replayed = 0;
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            List<AuditEvent> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(objectMapper.readValue(line, AuditEvent.class));
+                } catch (JsonProcessingException e) {
+                    log.error("Skipping unreadable audit spill line: {}", e.getMessage());
+                }
+                if (batch.size() >= batchSize) {
+                    replayed += insertOrPark(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                replayed += insertOrPark(batch);
+            }
+        } catch (IOException | DataAccessException e) {
+            log.warn("Audit spill replay stopped after {} events, retried later: {}", replayed, e.getMessage());
+            return;
+        }
+
+        try {
+            Files.delete(replayFile);
+        } catch (IOException e) {
+            log.error("Could not delete replayed audit spill file {}", replayFile, e);
+        }
+        log.info("Replayed {} spilled audit events", replayed);
+    }
+}
@@ -1,33 +1,60 @@
 package com.lovedev.api.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lovedev.api.exception.BadRequestException;
+import com.lovedev.api.mapper.UserMapper;
+import com.lovedev.api.model.dto.request.AuditLogSearchRequest;
+import com.lovedev.api.model.dto.response.AuditLogResponse;
+import com.lovedev.api.model.dto.response.CursorPageResponse;
 import com.lovedev.api.model.entity.AuditLog;
 import com.lovedev.api.model.entity.User;
 import com.lovedev.api.model.enums.AuditAction;
+import com.lovedev.api.model.event.AuditEvent;
 import com.lovedev.api.repository.AuditLogRepository;
+import com.lovedev.api.repository.UserRepository;
+import com.lovedev.api.util.CursorCodec;
+import com.lovedev.api.util.FieldDiffer;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
-import java.util.Map;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuditService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
+    private final ApplicationEventPublisher eventPublisher;
     private final AuditLogRepository auditLogRepository;
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Log action synchronously (within same transaction)
-     * Use this for actions within a transaction (like registration)
+     * Record an action; the row is written by AuditLogWriter after the current transaction commits
+     * (right away when there is none), so the caller never waits on an audit INSERT. Request details
+     * are captured here, while the request is still bound to the thread.
      */
-    @Transactional(propagation = Propagation.MANDATORY)
     public void logAction(User user, AuditAction action, String entityType,
                           String entityId, Map<String, Object> oldValue,
                           Map<String, Object> newValue, String description) {
@@ -40,8 +67,8 @@ public class AuditService {
 
             HttpServletRequest request = getCurrentRequest();
 
-            AuditLog auditLog = AuditLog.builder()
-                    .user(user)
+            AuditEvent event = AuditEvent.builder()
+                    .userId(user.getId())
                     .action(action)
                     .entityType(entityType)
                     .entityId(entityId)
@@ -50,10 +77,11 @@ public class AuditService {
                     .description(description)
                     .ipAddress(request != null ? getClientIp(request) : null)
                     .userAgent(request != null ? request.getHeader("User-Agent") : null)
+                    .createdAt(LocalDateTime.now())
                     .build();
 
-            auditLogRepository.save(auditLog);
-            log.debug("Audit log created: {} - {} - {}", user.getEmail(), action, entityType);
+            eventPublisher.publishEvent(event);
+            log.debug("Audit event queued: {} - {} - {}", user.getEmail(), action, entityType);
 
         } catch (Exception e) {
             // Log but don't throw - audit logging should never break main flow
@@ -62,6 +90,21 @@ public class AuditService {
         }
     }
 
+    /**
+     * Record a change with only the fields that changed (see AuditFields); nothing is written for an empty diff
+     *
+     * @return whether an audit event was recorded
+     */
+    public boolean logChange(User user, AuditAction action, String entityType,
+                             String entityId, FieldDiffer.Diff diff, String description) {
+        if (diff.isEmpty()) {
+            log.debug("Audit skipped, nothing changed: {} - {} {}", action, entityType, entityId);
+            return false;
+        }
+        logAction(user, action, entityType, entityId, diff.getOldValues(), diff.getNewValues(), description);
+        return true;
+    }
+
     /**
      * Simplified log action with description only
      */
@@ -70,15 +113,133 @@ public class AuditService {
     }
 
     /**
-     * Log action asynchronously (use after transaction commits)
-     * Use this for non-critical logging that can happen later
+     * Same as logAction: every audit write is asynchronous now
      */
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void logActionAsync(User user, AuditAction action, String description) {
         logAction(user, action, null, null, null, null, description);
     }
 
+    // ============================================
+    // Queries (admin)
+    // ============================================
+
+    /**
+     * Search audit logs, newest first, with keyset pagination
+     * cursor is the nextCursor of the previous page (an encoded createdAt and id). oldValue/newValue
+     * are JSON objects the stored value must contain, e.g. newValue {"status": "BANNED"}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<AuditLogResponse> searchAuditLogs(AuditLogSearchRequest request, String cursor, int size) {
+        AuditLogSearchRequest filter = normalize(request);
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+
+        CursorCodec.CreatedAtId position = CursorCodec.decodeCreatedAtId(cursor);
+
+        // One extra row tells whether there is a next page
+        List<AuditLog> auditLogs = auditLogRepository.findPageBefore(
+                filter, position.getCreatedAt(), position.getId(), limit + 1);
+        boolean hasNext = auditLogs.size() > limit;
+        if (hasNext) {
+            auditLogs = auditLogs.subList(0, limit);
+        }
+
+        // One lookup for the page's users instead of one per row
+        Set<UUID> userIds = auditLogs.stream()
+                .filter(auditLog -> auditLog.getUser() != null)
+                .map(auditLog -> auditLog.getUser().getId())
+                .collect(Collectors.toSet());
+        Map<UUID, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<AuditLogResponse> content = new ArrayList<>(auditLogs.size());
+        for (AuditLog auditLog : auditLogs) {
+            AuditLogResponse response = userMapper.toAuditLogRow(auditLog);
+            User user = response.getUserId() != null ? users.get(response.getUserId()) : null;
+            if (user != null) {
+                response.setUserName(user.getFullName());
+            }
+            content.add(response);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            AuditLog last = auditLogs.get(auditLogs.size() - 1);
+            nextCursor = CursorCodec.encodeCreatedAtId(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageResponse.<AuditLogResponse>builder()
+                .content(content)
+                .size(limit)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
+    /**
+     * Write every matching audit log to out as NDJSON (one JSON object per line), oldest first
+     * Rows come through a server-side cursor and are written as they arrive, so neither the
+     * result set nor the response is ever held in memory. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportAuditLogs(AuditLogSearchRequest request, OutputStream out) {
+        AuditLogSearchRequest filter = normalize(request);
+        // Let the generator's buffer decide when to flush, not every row
+        ObjectWriter writer = objectMapper.writerFor(AuditLogResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long rows = 0;
+        try (Stream<AuditLog> auditLogs = auditLogRepository.stream(filter);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            Iterator<AuditLog> iterator = auditLogs.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, userMapper.toAuditLogRow(iterator.next()));
+                generator.writeRaw('\n');
+                rows++;
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Audit log export aborted after " + rows + " rows", e);
+        }
+        log.info("Exported {} audit logs", rows);
+        return rows;
+    }
+
+    /**
+     * Copy of the filter with the JSON filters checked and compacted
+     */
+    private AuditLogSearchRequest normalize(AuditLogSearchRequest request) {
+        AuditLogSearchRequest filter = request != null ? request : new AuditLogSearchRequest();
+        AuditLogSearchRequest normalized = new AuditLogSearchRequest();
+        normalized.setUserId(filter.getUserId());
+        normalized.setAction(filter.getAction());
+        normalized.setEntityType(blankToNull(filter.getEntityType()));
+        normalized.setEntityId(blankToNull(filter.getEntityId()));
+        normalized.setFrom(filter.getFrom());
+        normalized.setTo(filter.getTo());
+        normalized.setOldValue(jsonObject("oldValue", filter.getOldValue()));
+        normalized.setNewValue(jsonObject("newValue", filter.getNewValue()));
+        return normalized;
+    }
+
+    private String jsonObject(String name, String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            if (node == null || !node.isObject() || node.isEmpty()) {
+                throw new BadRequestException(name + " must be a non-empty JSON object");
+            }
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new BadRequestException(name + " is not valid JSON");
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     /**
      * Get current HTTP request from context
      */
@@ -13,12 +13,16 @@ import com.lovedev.api.model.entity.Role;
 import com.lovedev.api.model.entity.User;
 import com.lovedev.api.model.enums.AuditAction;
 import com.lovedev.api.model.enums.UserStatus;
+import com.lovedev.api.model.event.UserChangedEvent;
 import com.lovedev.api.repository.RoleRepository;
 import com.lovedev.api.repository.UserRepository;
 import com.lovedev.api.security.CustomUserDetails;
+import com.lovedev.api.security.CustomUserDetailsService;
 import com.lovedev.api.security.JwtTokenProvider;
+import com.lovedev.api.security.PrincipalCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -44,6 +48,9 @@ public class AuthService {
     private final EmailService emailService;
     private final AuditService auditService;
     private final UserMapper userMapper;
+    private final CustomUserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public AuthResponse register(RegisterRequest request) {
@@ -72,6 +79,7 @@ public class AuthService {
         user.setEmailVerificationExpiresAt(LocalDateTime.now().plusHours(24));
 
         user = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
         log.info("New user registered: {} with role: {}", user.getEmail(), userRole.getName());
 
         // Send verification email
@@ -105,6 +113,8 @@ public class AuthService {
         user.setEmailVerificationExpiresAt(null);
 
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
         log.info("Email verified for user: {}", user.getEmail());
 
         // Send welcome email
@@ -123,7 +133,7 @@ public class AuthService {
 
         CustomUserDetails userDetails = (CustomUserDetails) authentication.getPrincipal();
 
-        User user = userRepository.findById(userDetails.getId())
+        User user = userRepository.findWithRolesById(userDetails.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!user.getEmailVerified()) {
@@ -163,7 +173,7 @@ public class AuthService {
         User user = refreshToken.getUser();
 
         // Generate new access token
-        CustomUserDetails userDetails = CustomUserDetails.build(user);
+        CustomUserDetails userDetails = userDetailsService.buildPrincipal(user);
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
 
@@ -216,6 +226,7 @@ public class AuthService {
         user.setPasswordResetExpiresAt(null);
 
         userRepository.save(user);
+        principalCache.invalidate(user.getId());
         log.info("Password reset for user: {}", user.getEmail());
 
         // Revoke all refresh tokens
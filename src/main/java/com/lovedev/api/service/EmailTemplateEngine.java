@@ -0,0 +1,57 @@
+package com.lovedev.api.service;
+
+import com.lovedev.api.util.CompiledTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Email templates from classpath:templates/email/*.html, compiled once at startup
+ * A template is looked up by file name without .html, e.g. "welcome".
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    private static final String LOCATION = "classpath*:templates/email/*.html";
+    private static final String SUFFIX = ".html";
+
+    private final Map<String, CompiledTemplate> templates = new HashMap<>();
+
+    public EmailTemplateEngine() {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String filename = resource.getFilename();
+                if (filename == null || !filename.endsWith(SUFFIX)) {
+                    continue;
+                }
+                String name = filename.substring(0, filename.length() - SUFFIX.length());
+                try (InputStream in = resource.getInputStream()) {
+                    templates.put(name, CompiledTemplate.compile(name, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load email templates from " + LOCATION, e);
+        }
+        log.info("Compiled {} email templates: {}", templates.size(), templates.keySet());
+    }
+
+    /**
+     * @throws IllegalStateException if there is no such template
+     */
+    public CompiledTemplate get(String name) {
+        CompiledTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalStateException("No email template " + name + " in " + LOCATION);
+        }
+        return template;
+    }
+}
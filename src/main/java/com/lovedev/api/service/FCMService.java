@@ -1,6 +1,5 @@
 package com.lovedev.api.service;
 
-import com.google.firebase.messaging.*;
 import com.lovedev.api.exception.BadRequestException;
 import com.lovedev.api.exception.ResourceNotFoundException;
 import com.lovedev.api.model.dto.request.FCMTokenRequest;
@@ -10,16 +9,23 @@ import com.lovedev.api.model.dto.request.SendNotificationRequest;
 import com.lovedev.api.model.dto.response.NotificationSettingsResponse;
 import com.lovedev.api.model.entity.FCMToken;
 import com.lovedev.api.model.entity.Notification;
+import com.lovedev.api.model.entity.NotificationCounter;
 import com.lovedev.api.model.entity.NotificationSettings;
 import com.lovedev.api.model.entity.User;
+import com.lovedev.api.model.enums.AuditAction;
 import com.lovedev.api.model.enums.NotificationStatus;
+import com.lovedev.api.model.event.NotificationCreatedEvent;
 import com.lovedev.api.repository.FCMTokenRepository;
+import com.lovedev.api.repository.NotificationCounterRepository;
 import com.lovedev.api.repository.NotificationRepository;
 import com.lovedev.api.repository.NotificationSettingsRepository;
+import com.lovedev.api.repository.PushOutboxRepository;
 import com.lovedev.api.repository.UserRepository;
+import com.lovedev.api.util.AuditFields;
 import com.lovedev.api.util.SecurityHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -36,8 +42,13 @@ public class FCMService {
 
     private final FCMTokenRepository fcmTokenRepository;
     private final NotificationRepository notificationRepository;
+    private final NotificationCounterRepository notificationCounterRepository;
     private final NotificationSettingsRepository notificationSettingsRepository;
     private final UserRepository userRepository;
+    private final PushOutboxRepository pushOutboxRepository;
+    private final NotificationBroadcastService notificationBroadcastService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditService auditService;
 
     // ============================================
     // FCM Token Management
@@ -124,6 +135,7 @@ public class FCMService {
 
         NotificationSettings settings = notificationSettingsRepository.findByUser(user)
                 .orElseGet(() -> createDefaultSettings(user));
+        Object[] before = AuditFields.NOTIFICATION_SETTINGS.snapshot(settings);
 
         // Update only provided fields
         if (request.getPushEnabled() != null) {
@@ -144,6 +156,8 @@ public class FCMService {
 
         settings = notificationSettingsRepository.save(settings);
         log.info("Notification settings updated for user: {}", user.getEmail());
+        auditService.logChange(user, AuditAction.UPDATE, "NotificationSettings", settings.getId().toString(),
+                AuditFields.NOTIFICATION_SETTINGS.diff(before, settings), "Notification settings updated");
 
         // Convert Entity to DTO
         return mapToResponse(settings);
@@ -183,7 +197,10 @@ public class FCMService {
     // Send Notifications
     // ============================================
 
-    @Async
+    /**
+     * Stores the notification and queues its pushes in push_outbox in the same transaction
+     * PushOutboxDispatcher delivers them, so FCM latency never reaches the caller.
+     */
     @Transactional
     public void sendNotificationToUser(SendNotificationRequest request) {
         User user = userRepository.findById(request.getUserId())
@@ -201,115 +218,39 @@ public class FCMService {
                 .sentAt(LocalDateTime.now())
                 .build();
 
-        notificationRepository.save(notification);
+        notification = notificationRepository.saveAndFlush(notification);
+        notificationCounterRepository.add(List.of(user.getId()), 1, 0, LocalDateTime.now());
+        eventPublisher.publishEvent(NotificationCreatedEvent.of(user.getId(), notification.getId()));
 
-        // Send push notification via FCM
-        sendPushNotification(user, request.getTitle(), request.getBody(), request.getData());
+        // Queue push notification via FCM
+        int queued = pushOutboxRepository.enqueueForNotifications(List.of(notification.getId()), LocalDateTime.now());
 
-        log.info("Notification sent to user: {}", user.getEmail());
+        log.info("Notification sent to user: {} ({} pushes queued)", user.getEmail(), queued);
     }
 
+    /**
+     * Streams users in keyset chunks instead of loading them all: see NotificationBroadcastService
+     */
     @Async
-    @Transactional
     public void sendNotificationToAllUsers(SendBulkNotificationRequest request) {
-        List<User> users = userRepository.findAll();
-
-        for (User user : users) {
-            try {
-                Notification notification = Notification.builder()
-                        .user(user)
-                        .title(request.getTitle())
-                        .body(request.getBody())
-                        .type(request.getType())
-                        .status(NotificationStatus.UNREAD)
-                        .data(request.getData())
-                        .actionUrl(request.getActionUrl())
-                        .sentAt(LocalDateTime.now())
-                        .build();
-
-                notificationRepository.save(notification);
-
-                // Send push notification
-                sendPushNotification(user, request.getTitle(), request.getBody(), request.getData());
-
-            } catch (Exception e) {
-                log.error("Failed to send notification to user: {}", user.getEmail(), e);
-            }
-        }
-
-        log.info("Bulk notification sent to {} users", users.size());
-    }
-
-    private void sendPushNotification(User user, String title, String body, String data) {
-        // Check if user has push notifications enabled
-        NotificationSettings settings = notificationSettingsRepository.findByUser(user)
-                .orElse(null);
-
-        if (settings == null || !settings.getPushEnabled()) {
-            log.debug("Push notifications disabled for user: {}", user.getEmail());
-            return;
-        }
-
-        // Get active FCM tokens
-        List<FCMToken> tokens = fcmTokenRepository.findActiveTokensByUser(user);
-
-        if (tokens.isEmpty()) {
-            log.debug("No active FCM tokens for user: {}", user.getEmail());
-            return;
-        }
-
-        for (FCMToken fcmToken : tokens) {
-            try {
-                Message message = Message.builder()
-                        .setToken(fcmToken.getToken())
-                        .setNotification(com.google.firebase.messaging.Notification.builder()
-                                .setTitle(title)
-                                .setBody(body)
-                                .build())
-                        .putData("data", data != null ? data : "")
-                        .setAndroidConfig(AndroidConfig.builder()
-                                .setPriority(AndroidConfig.Priority.HIGH)
-                                .build())
-                        .setApnsConfig(ApnsConfig.builder()
-                                .setAps(Aps.builder()
-                                        .setSound("default")
-                                        .build())
-                                .build())
-                        .build();
-
-                String response = FirebaseMessaging.getInstance().send(message);
-                log.info("FCM message sent successfully: {}", response);
-
-                // Update last used time
-                fcmToken.setLastUsedAt(LocalDateTime.now());
-                fcmTokenRepository.save(fcmToken);
-
-            } catch (FirebaseMessagingException e) {
-                log.error("Failed to send FCM message to token: {}", fcmToken.getToken(), e);
-
-                // Deactivate invalid tokens
-                if (e.getMessagingErrorCode() == MessagingErrorCode.INVALID_ARGUMENT ||
-                        e.getMessagingErrorCode() == MessagingErrorCode.UNREGISTERED) {
-                    fcmTokenRepository.deactivateToken(fcmToken.getToken(), LocalDateTime.now());
-                    log.info("Deactivated invalid FCM token");
-                }
-            }
-        }
+        notificationBroadcastService.broadcast(request);
     }
 
     // ============================================
     // Notification Statistics
     // ============================================
 
+    /**
+     * Reads the materialized counters (one primary-key lookup) instead of counting notifications
+     */
     @Transactional(readOnly = true)
     public Map<String, Long> getNotificationStats() {
         UUID userId = SecurityHelper.getCurrentUserId();
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        Optional<NotificationCounter> counter = notificationCounterRepository.findById(userId);
 
-        Long unreadCount = notificationRepository.countByUserAndStatus(user, NotificationStatus.UNREAD);
-        Long readCount = notificationRepository.countByUserAndStatus(user, NotificationStatus.READ);
-        Long totalCount = unreadCount + readCount;
+        long unreadCount = counter.map(NotificationCounter::getUnreadCount).orElse(0L);
+        long readCount = counter.map(NotificationCounter::getReadCount).orElse(0L);
+        long totalCount = unreadCount + readCount;
 
         Map<String, Long> stats = new HashMap<>();
         stats.put("unread", unreadCount);
@@ -323,12 +264,21 @@ public class FCMService {
     // Scheduled Tasks
     // ============================================
 
-    @Scheduled(cron = "0 0 3 * * *") // Run at 3 AM daily
+    /**
+     * Recounts notifications and repairs counters that drifted (e.g. races with partition drops)
+     * Counters changed in the last minute are left for the next run.
+     */
+    @Scheduled(fixedDelayString = "${app.notification.counters.reconcile-interval:3600000}",
+            initialDelayString = "${app.notification.counters.reconcile-interval:3600000}")
     @Transactional
-    public void cleanupExpiredNotifications() {
-        LocalDateTime expiryDate = LocalDateTime.now().minusDays(30); // Keep for 30 days
-        notificationRepository.deleteExpiredNotifications(expiryDate);
-        log.info("Cleaned up expired notifications older than 30 days");
+    public void reconcileNotificationCounters() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime stableBefore = now.minusMinutes(1);
+        int fixed = notificationCounterRepository.reconcileCounted(stableBefore, now)
+                + notificationCounterRepository.reconcileEmpty(stableBefore, now);
+        if (fixed > 0) {
+            log.warn("Reconciled {} drifted notification counters", fixed);
+        }
     }
 
     @Scheduled(cron = "0 0 4 * * *") // Run at 4 AM daily
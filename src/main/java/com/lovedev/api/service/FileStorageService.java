@@ -1,27 +1,49 @@
 package com.lovedev.api.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.lovedev.api.exception.FileStorageException;
 import com.lovedev.api.exception.ResourceNotFoundException;
 import com.lovedev.api.util.FileUtil;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 
 /**
  * Service for file storage operations
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class FileStorageService {
 
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
     private final FileUtil fileUtil;
+    // Content hash by path + size + mtime: a rewritten file gets a new key, so entries never go stale
+    private final Cache<String, String> contentHashes;
+
+    public FileStorageService(FileUtil fileUtil,
+                              @Value("${app.file.etag-cache.max-size:10000}") long etagCacheSize) {
+        this.fileUtil = fileUtil;
+        this.contentHashes = Caffeine.newBuilder()
+                .maximumSize(etagCacheSize)
+                .build();
+    }
 
     /**
      * Store avatar file
@@ -45,6 +67,9 @@ public class FileStorageService {
     public Resource loadFileAsResource(String fileName) {
         try {
             Path filePath = fileUtil.getFilePath(fileName);
+            if (!filePath.startsWith(fileUtil.getStorageLocation())) {
+                throw new ResourceNotFoundException("File not found: " + fileName);
+            }
             Resource resource = new UrlResource(filePath.toUri());
 
             if (resource.exists() && resource.isReadable()) {
@@ -57,6 +82,32 @@ public class FileStorageService {
         }
     }
 
+    /**
+     * Strong ETag value (quoted) from a SHA-256 of the file's content
+     * Hashed once per version of the file, then served from memory.
+     */
+    public String getETag(Path file, BasicFileAttributes attributes) {
+        String key = file + "|" + attributes.size() + "|" + attributes.lastModifiedTime().toMillis();
+        return contentHashes.get(key, k -> "\"" + hash(file) + "\"");
+    }
+
+    private static String hash(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not hash " + file, e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Delete file
      */
@@ -0,0 +1,112 @@
+package com.lovedev.api.service;
+
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.messaging.*;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PushGateway backed by the Firebase Admin SDK (FirebaseMessaging.sendEach)
+ */
+@Slf4j
+public class FirebasePushGateway implements PushGateway {
+
+    // FirebaseMessaging.sendEach accepts at most 500 messages
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final String APNS_COLLAPSE_HEADER = "apns-collapse-id";
+
+    @Override
+    public boolean isAvailable() {
+        // FirebaseConfig skips initialization when app.firebase.enabled is false
+        return !FirebaseApp.getApps().isEmpty();
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public List<PushResult> sendAll(List<PushMessage> messages) {
+        PushResult[] results = new PushResult[messages.size()];
+        List<Message> fcmMessages = new ArrayList<>(messages.size());
+        List<Integer> sent = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            try {
+                fcmMessages.add(toFcmMessage(messages.get(i)));
+                sent.add(i);
+            } catch (RuntimeException e) {
+                // Only this message fails (e.g. blank token); the outbox dead-letters it at max-attempts
+                log.warn("Cannot build FCM message: {}", e.toString());
+                results[i] = PushResult.failed(e.toString());
+            }
+        }
+        if (fcmMessages.isEmpty()) {
+            return Arrays.asList(results);
+        }
+
+        try {
+            List<SendResponse> responses = FirebaseMessaging.getInstance().sendEach(fcmMessages).getResponses();
+            for (int i = 0; i < responses.size(); i++) {
+                SendResponse response = responses.get(i);
+                results[sent.get(i)] = response.isSuccessful()
+                        ? PushResult.delivered()
+                        : toResult(response.getException().getMessagingErrorCode(), response.getException().getMessage());
+            }
+        } catch (FirebaseMessagingException e) {
+            // The whole batch was rejected (auth, quota, transport). Its error code describes the call,
+            // not any token, so even INVALID_ARGUMENT is retried instead of deactivating every token.
+            log.warn("FCM batch of {} messages failed: {}", fcmMessages.size(), e.getMessage());
+            PushResult failure = PushResult.failed(describe(e.getMessagingErrorCode(), e.getMessage()));
+            sent.forEach(i -> results[i] = failure);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Result of one message's SendResponse
+     * INVALID_ARGUMENT and UNREGISTERED mean the token is dead; everything else is retryable.
+     */
+    static PushResult toResult(MessagingErrorCode errorCode, String message) {
+        String error = describe(errorCode, message);
+        if (errorCode == MessagingErrorCode.INVALID_ARGUMENT || errorCode == MessagingErrorCode.UNREGISTERED) {
+            return PushResult.invalidToken(error);
+        }
+        return PushResult.failed(error);
+    }
+
+    private static String describe(MessagingErrorCode errorCode, String message) {
+        String error = errorCode != null ? errorCode.name() : "UNKNOWN";
+        return message != null ? error + ": " + message : error;
+    }
+
+    private static Message toFcmMessage(PushMessage message) {
+        AndroidConfig.Builder android = AndroidConfig.builder()
+                .setPriority(AndroidConfig.Priority.HIGH);
+        ApnsConfig.Builder apns = ApnsConfig.builder()
+                .setAps(Aps.builder()
+                        .setSound("default")
+                        .build());
+        if (message.getCollapseKey() != null) {
+            android.setCollapseKey(message.getCollapseKey());
+            apns.putHeader(APNS_COLLAPSE_HEADER, message.getCollapseKey());
+        }
+
+        Message.Builder builder = Message.builder()
+                .setToken(message.getToken())
+                .setNotification(Notification.builder()
+                        .setTitle(message.getTitle())
+                        .setBody(message.getBody())
+                        .build())
+                .putData("data", message.getData() != null ? message.getData() : "")
+                .setAndroidConfig(android.build())
+                .setApnsConfig(apns.build());
+        if (message.getCoalesced() > 1) {
+            builder.putData("coalesced", String.valueOf(message.getCoalesced()));
+        }
+        return builder.build();
+    }
+}
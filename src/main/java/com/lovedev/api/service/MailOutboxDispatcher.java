@@ -0,0 +1,237 @@
+package com.lovedev.api.service;
+
+import com.lovedev.api.model.entity.MailOutbox;
+import com.lovedev.api.repository.MailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPAddressFailedException;
+import org.eclipse.angus.mail.smtp.SMTPSendFailedException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UnsupportedEncodingException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Drains mail_outbox
+ * Each round claims up to batch-size due rows (FOR UPDATE SKIP LOCKED + lease, in a short transaction),
+ * splits them across concurrency workers on the bounded mailDispatchExecutor, and each worker sends its
+ * share over one pooled SMTP connection (SmtpConnectionPool). Sent rows are deleted; rows the server
+ * rejects for good (5xx) are dead-lettered at once; other failures are retried with exponential backoff
+ * and full jitter until max-attempts, then dead-lettered (status DEAD).
+ * No transaction or connection is held while SMTP is spoken.
+ */
+@Service
+@Slf4j
+public class MailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final MailOutboxRepository mailOutboxRepository;
+    private final SmtpConnectionPool smtpConnectionPool;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor mailDispatchExecutor;
+    private final String fromEmail;
+    private final String fromName;
+    private final int batchSize;
+    private final int concurrency;
+    private final OutboxRetryPolicy retryPolicy;
+
+    public MailOutboxDispatcher(MailOutboxRepository mailOutboxRepository,
+                                SmtpConnectionPool smtpConnectionPool,
+                                PlatformTransactionManager transactionManager,
+                                @Qualifier("mailDispatchExecutor") Executor mailDispatchExecutor,
+                                @Value("${app.email.from}") String fromEmail,
+                                @Value("${app.email.from-name}") String fromName,
+                                @Value("${app.email.queue.batch-size:200}") int batchSize,
+                                @Value("${app.email.queue.concurrency:4}") int concurrency,
+                                @Value("${app.email.queue.max-attempts:8}") int maxAttempts,
+                                @Value("${app.email.queue.backoff:10000}") long backoffMillis,
+                                @Value("${app.email.queue.max-backoff:3600000}") long maxBackoffMillis,
+                                @Value("${app.email.queue.lease:300000}") long leaseMillis) {
+        this.mailOutboxRepository = mailOutboxRepository;
+        this.smtpConnectionPool = smtpConnectionPool;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailDispatchExecutor = mailDispatchExecutor;
+        this.fromEmail = fromEmail;
+        this.fromName = fromName;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.retryPolicy = new OutboxRetryPolicy("emails", maxAttempts, backoffMillis, maxBackoffMillis, leaseMillis);
+    }
+
+    /**
+     * Keeps claiming while full batches come back, so a sign-up burst drains without waiting for the next tick
+     */
+    @Scheduled(fixedDelayString = "${app.email.queue.dispatch-interval:1000}")
+    public void dispatch() {
+        try {
+            List<MailOutbox> rows;
+            do {
+                rows = claim();
+                if (rows.isEmpty()) {
+                    return;
+                }
+                List<CompletableFuture<Void>> sends = new ArrayList<>();
+                int sliceSize = (rows.size() + concurrency - 1) / concurrency;
+                for (int from = 0; from < rows.size(); from += sliceSize) {
+                    List<MailOutbox> slice = rows.subList(from, Math.min(from + sliceSize, rows.size()));
+                    sends.add(CompletableFuture.runAsync(() -> send(slice), mailDispatchExecutor));
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            } while (rows.size() >= batchSize);
+        } catch (Exception e) {
+            log.error("Mail outbox dispatch round failed; leased rows are retried after the lease expires", e);
+        }
+    }
+
+    private List<MailOutbox> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(tx -> {
+            List<UUID> ids = mailOutboxRepository.lockDueIds(now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            List<UUID> claimed = retryPolicy.lease(mailOutboxRepository, ids, now);
+            if (claimed.isEmpty()) {
+                return List.of();
+            }
+            return mailOutboxRepository.findByIdIn(claimed);
+        });
+    }
+
+    /**
+     * Sends rows in order over one connection; a broken connection is replaced for the next row
+     * The outcome is recorded whatever happens, so rows already sent are never sent again.
+     */
+    private void send(List<MailOutbox> rows) {
+        Outcome outcome = new Outcome();
+        SmtpConnectionPool.Connection connection = null;
+        try {
+            for (int i = 0; i < rows.size(); i++) {
+                MailOutbox row = rows.get(i);
+                if (connection == null) {
+                    try {
+                        connection = smtpConnectionPool.borrow();
+                    } catch (MessagingException e) {
+                        // Server unreachable: the rest of this share is retried later rather than timing out one by one
+                        for (MailOutbox unsent : rows.subList(i, rows.size())) {
+                            outcome.fail(unsent, e, false);
+                        }
+                        break;
+                    }
+                }
+                try {
+                    connection.send(toMessage(row));
+                    outcome.sent.add(row.getId());
+                } catch (MessagingException | UnsupportedEncodingException | RuntimeException e) {
+                    // A RuntimeException (e.g. a row that cannot be built into a message) is retried like any failure
+                    outcome.fail(row, e, isPermanent(e));
+                    if (connection.isBroken()) {
+                        smtpConnectionPool.release(connection);
+                        connection = null;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // Unsent rows stay leased and come back after the lease
+        } finally {
+            if (connection != null) {
+                smtpConnectionPool.release(connection);
+            }
+            try {
+                transactionTemplate.executeWithoutResult(tx -> record(outcome));
+            } catch (DataAccessException e) {
+                // Rows stay leased and are sent again after the lease: at-least-once delivery
+                log.error("Failed to record outcome of {} emails", rows.size(), e);
+            }
+        }
+    }
+
+    private MimeMessage toMessage(MailOutbox row) throws MessagingException, UnsupportedEncodingException {
+        MimeMessage message = new MimeMessage(smtpConnectionPool.getSession());
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail, fromName);
+        helper.setTo(row.getRecipient());
+        helper.setSubject(row.getSubject());
+        helper.setText(row.getBody(), true);
+        helper.setSentDate(new Date());
+        // Transport.sendMessage does not do this itself (Transport.send would): builds headers and Message-ID
+        message.saveChanges();
+        return message;
+    }
+
+    private void record(Outcome outcome) {
+        if (!outcome.sent.isEmpty()) {
+            mailOutboxRepository.deleteByIdIn(outcome.sent);
+            log.debug("Sent {} emails", outcome.sent.size());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, List<UUID>> dead = new HashMap<>();
+        for (Failure failure : outcome.failures) {
+            if (failure.permanent || retryPolicy.isExhausted(failure.row.getAttempts())) {
+                dead.computeIfAbsent(failure.error, e -> new ArrayList<>()).add(failure.row.getId());
+            } else {
+                mailOutboxRepository.reschedule(List.of(failure.row.getId()),
+                        retryPolicy.nextAttemptAt(failure.row.getAttempts(), now), failure.error);
+            }
+        }
+        dead.forEach((error, ids) -> {
+            mailOutboxRepository.markDead(ids, error);
+            log.warn("Dead-lettered {} emails: {}", ids.size(), error);
+        });
+    }
+
+    /**
+     * Did the server refuse the message or its recipient for good (5xx)?
+     */
+    private static boolean isPermanent(Exception e) {
+        Exception current = e;
+        while (current != null) {
+            if (current instanceof SMTPAddressFailedException failed && failed.getReturnCode() >= 500) {
+                return true;
+            }
+            if (current instanceof SMTPSendFailedException failed && failed.getReturnCode() >= 500) {
+                return true;
+            }
+            current = current instanceof MessagingException messaging ? messaging.getNextException() : null;
+        }
+        // A message that cannot even be built will not build next time either
+        return e instanceof UnsupportedEncodingException;
+    }
+
+    private static final class Outcome {
+        private final List<UUID> sent = new ArrayList<>();
+        private final List<Failure> failures = new ArrayList<>();
+
+        private void fail(MailOutbox row, Exception e, boolean permanent) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            String truncated = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+            failures.add(new Failure(row, truncated, permanent));
+        }
+    }
+
+    private static final class Failure {
+        private final MailOutbox row;
+        private final String error;
+        private final boolean permanent;
+
+        private Failure(MailOutbox row, String error, boolean permanent) {
+            this.row = row;
+            this.error = error;
+            this.permanent = permanent;
+        }
+    }
+}
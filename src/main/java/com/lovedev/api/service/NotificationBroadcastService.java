@@ -0,0 +1,125 @@
+package com.lovedev.api.service;
+
+import com.lovedev.api.model.dto.request.SendBulkNotificationRequest;
+import com.lovedev.api.model.enums.NotificationStatus;
+import com.lovedev.api.model.enums.NotificationType;
+import com.lovedev.api.model.event.NotificationCreatedEvent;
+import com.lovedev.api.repository.NotificationCounterRepository;
+import com.lovedev.api.repository.PushOutboxRepository;
+import com.lovedev.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Broadcast pipeline behind FCMService.sendNotificationToAllUsers
+ * Users are paged by id in keyset chunks. Per chunk, notifications are inserted with one JDBC batch, then
+ * the unread counters and the push_outbox rows get one set-based statement each, in a short transaction of their own.
+ * PushOutboxDispatcher does the sending, so memory stays bounded by one chunk whatever the number of users.
+ */
+@Service
+@Slf4j
+public class NotificationBroadcastService {
+
+    // Smallest uuid in PostgreSQL's (unsigned) uuid ordering
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private static final String INSERT_NOTIFICATION = "INSERT INTO notifications " +
+            "(id, user_id, title, body, type, status, data, action_url, sent_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final PushOutboxRepository pushOutboxRepository;
+    private final NotificationCounterRepository notificationCounterRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public NotificationBroadcastService(UserRepository userRepository,
+                                        PushOutboxRepository pushOutboxRepository,
+                                        NotificationCounterRepository notificationCounterRepository,
+                                        JdbcTemplate jdbcTemplate,
+                                        ApplicationEventPublisher eventPublisher,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${app.notification.broadcast.chunk-size:1000}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.pushOutboxRepository = pushOutboxRepository;
+        this.notificationCounterRepository = notificationCounterRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    public void broadcast(SendBulkNotificationRequest request) {
+        long start = System.nanoTime();
+        LocalDateTime sentAt = LocalDateTime.now();
+        long stored = 0;
+        long queued = 0;
+        long failed = 0;
+
+        UUID afterId = FIRST_ID;
+        List<UUID> userIds;
+        do {
+            userIds = userRepository.findIdsAfter(afterId, PageRequest.of(0, chunkSize));
+            if (userIds.isEmpty()) {
+                break;
+            }
+            afterId = userIds.get(userIds.size() - 1);
+
+            try {
+                List<UUID> chunk = userIds;
+                Integer chunkQueued = transactionTemplate.execute(tx -> {
+                    List<UUID> notificationIds = insertNotifications(chunk, request, sentAt);
+                    notificationCounterRepository.add(chunk, 1, 0, LocalDateTime.now());
+                    eventPublisher.publishEvent(NotificationCreatedEvent.of(chunk, notificationIds));
+                    return pushOutboxRepository.enqueueForNotifications(notificationIds, LocalDateTime.now());
+                });
+                stored += userIds.size();
+                queued += chunkQueued != null ? chunkQueued : 0;
+            } catch (DataAccessException e) {
+                log.error("Failed to store broadcast notifications for {} users after {}",
+                        userIds.size(), userIds.get(0), e);
+                failed += userIds.size();
+            }
+        } while (userIds.size() == chunkSize);
+
+        log.info("Bulk notification stored for {} users ({} failed), {} pushes queued in {} ms",
+                stored, failed, queued, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private List<UUID> insertNotifications(List<UUID> userIds, SendBulkNotificationRequest request,
+                                           LocalDateTime sentAt) {
+        NotificationType type = request.getType() != null ? request.getType() : NotificationType.INFO;
+        LocalDateTime createdAt = LocalDateTime.now();
+        List<UUID> notificationIds = new ArrayList<>(userIds.size());
+
+        jdbcTemplate.batchUpdate(INSERT_NOTIFICATION, userIds, userIds.size(), (ps, userId) -> {
+            UUID notificationId = UUID.randomUUID();
+            notificationIds.add(notificationId);
+            ps.setObject(1, notificationId);
+            ps.setObject(2, userId);
+            ps.setString(3, request.getTitle());
+            ps.setString(4, request.getBody());
+            ps.setString(5, type.name());
+            ps.setString(6, NotificationStatus.UNREAD.name());
+            ps.setString(7, request.getData());
+            ps.setString(8, request.getActionUrl());
+            ps.setObject(9, sentAt);
+            ps.setObject(10, createdAt);
+        });
+        return notificationIds;
+    }
+}
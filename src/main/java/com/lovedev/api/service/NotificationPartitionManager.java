@@ -0,0 +1,147 @@
+package com.lovedev.api.service;
+
+import com.lovedev.api.repository.NotificationCounterRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the weekly partitions of notifications (see V8__Partition_Notifications.sql)
+ * Pre-creates partitions weeks-ahead weeks into the future and enforces retention by dropping
+ * whole partitions once their newest possible row is older than retention-days. A drop costs the
+ * same whatever the partition holds, and leaves no dead rows behind.
+ */
+@Component
+@Slf4j
+public class NotificationPartitionManager {
+
+    private static final String PARENT_TABLE = "notifications";
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARENT_TABLE + "_p(\\d{8})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    // pg_try_advisory_xact_lock key, so that only one node drops a given partition
+    private static final long DROP_LOCK_KEY = 0x6e6f746966L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationCounterRepository notificationCounterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int weeksAhead;
+
+    public NotificationPartitionManager(JdbcTemplate jdbcTemplate,
+                                        NotificationCounterRepository notificationCounterRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${app.notification.retention-days:30}") int retentionDays,
+                                        @Value("${app.notification.partitions.weeks-ahead:4}") int weeksAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationCounterRepository = notificationCounterRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retentionDays = retentionDays;
+        this.weeksAhead = weeksAhead;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "0 0 3 * * *") // Run at 3 AM daily
+    public void maintain() {
+        try {
+            createFuturePartitions();
+            dropExpiredPartitions();
+        } catch (DataAccessException e) {
+            log.error("Notification partition maintenance failed; retried on the next run", e);
+        }
+    }
+
+    private void createFuturePartitions() {
+        Set<LocalDate> existing = partitions().keySet();
+        LocalDate thisWeek = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        for (int week = 0; week <= weeksAhead; week++) {
+            LocalDate start = thisWeek.plusWeeks(week);
+            if (!existing.contains(start)) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(start) +
+                        " PARTITION OF " + PARENT_TABLE +
+                        " FOR VALUES FROM ('" + start + "') TO ('" + start.plusWeeks(1) + "')");
+                log.info("Created notification partition {}", partitionName(start));
+            }
+        }
+    }
+
+    /**
+     * Oldest first, so counters subtracted "before the partition's end" only ever cover that partition
+     */
+    private void dropExpiredPartitions() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(retentionDays).atStartOfDay();
+        for (Map.Entry<LocalDate, String> partition : partitions().entrySet()) {
+            LocalDateTime end = partition.getKey().plusWeeks(1).atStartOfDay();
+            if (end.isAfter(cutoff) || !dropPartition(partition.getValue(), end)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns false when another node is dropping partitions right now
+     */
+    private boolean dropPartition(String partition, LocalDateTime end) {
+        Boolean locked = transactionTemplate.execute(tx -> {
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, DROP_LOCK_KEY))) {
+                return false;
+            }
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition))) {
+                return true;
+            }
+            // The drop briefly locks the whole notifications table: give up rather than queue behind long queries
+            jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+            notificationCounterRepository.subtractCreatedBefore(end, LocalDateTime.now());
+            jdbcTemplate.update("DELETE FROM push_outbox WHERE created_at < ?", end);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("Dropped expired notification partition {} (rows created before {})", partition, end);
+            return true;
+        });
+        return Boolean.TRUE.equals(locked);
+    }
+
+    /**
+     * Existing partitions by the Monday they start on, oldest first
+     */
+    private TreeMap<LocalDate, String> partitions() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "WHERE i.inhparent = '" + PARENT_TABLE + "'::regclass", String.class);
+        TreeMap<LocalDate, String> partitions = new TreeMap<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                partitions.put(LocalDate.parse(matcher.group(1), PARTITION_SUFFIX), name);
+            }
+        }
+        return partitions;
+    }
+
+    private static String partitionName(LocalDate start) {
+        return PARENT_TABLE + "_p" + start.format(PARTITION_SUFFIX);
+    }
+}
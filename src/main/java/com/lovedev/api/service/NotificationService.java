@@ -3,17 +3,22 @@ package com.lovedev.api.service;
 import com.lovedev.api.exception.ResourceNotFoundException;
 import com.lovedev.api.exception.UnauthorizedException;
 import com.lovedev.api.mapper.NotificationMapper;
+import com.lovedev.api.model.dto.response.CursorPageResponse;
 import com.lovedev.api.model.dto.response.NotificationResponse;
 import com.lovedev.api.model.dto.response.PageResponse;
 import com.lovedev.api.model.entity.Notification;
 import com.lovedev.api.model.entity.User;
 import com.lovedev.api.model.enums.NotificationStatus;
 import com.lovedev.api.model.enums.NotificationType;
+import com.lovedev.api.model.event.NotificationCreatedEvent;
+import com.lovedev.api.repository.NotificationCounterRepository;
 import com.lovedev.api.repository.NotificationRepository;
 import com.lovedev.api.repository.UserRepository;
+import com.lovedev.api.util.CursorCodec;
 import com.lovedev.api.util.SecurityHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,9 +34,13 @@ import java.util.UUID;
 @Slf4j
 public class NotificationService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final NotificationRepository notificationRepository;
+    private final NotificationCounterRepository notificationCounterRepository;
     private final UserRepository userRepository;
     private final NotificationMapper notificationMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public PageResponse<NotificationResponse> getUserNotifications(int page, int size, String status) {
@@ -65,6 +74,49 @@ public class NotificationService {
                 .build();
     }
 
+    /**
+     * Keyset (cursor) variant of getUserNotifications, newest first
+     * before is the nextCursor of the previous page (an encoded createdAt and id). There is no COUNT
+     * and no user lookup, so a page costs one index range scan however deep the inbox is.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<NotificationResponse> getUserNotificationsBefore(String before, int size, String status) {
+        UUID userId = SecurityHelper.getCurrentUserId();
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+
+        CursorCodec.CreatedAtId position = CursorCodec.decodeCreatedAtId(before);
+        LocalDateTime createdAt = position.getCreatedAt();
+        UUID id = position.getId();
+
+        // One extra row tells whether there is a next page
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<Notification> notifications;
+        if (status != null && !status.isEmpty()) {
+            NotificationStatus notificationStatus = NotificationStatus.valueOf(status.toUpperCase());
+            notifications = notificationRepository.findPageBeforeByStatus(userId, notificationStatus, createdAt, id, pageable);
+        } else {
+            notifications = notificationRepository.findPageBefore(userId, createdAt, id, pageable);
+        }
+
+        boolean hasNext = notifications.size() > limit;
+        if (hasNext) {
+            notifications = notifications.subList(0, limit);
+        }
+
+        String nextCursor = null;
+        if (hasNext) {
+            Notification last = notifications.get(notifications.size() - 1);
+            nextCursor = CursorCodec.encodeCreatedAtId(last.getCreatedAt(), last.getId());
+        }
+
+        return CursorPageResponse.<NotificationResponse>builder()
+                .content(notificationMapper.toResponseList(notifications))
+                .size(limit)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
+    }
+
     @Transactional
     public NotificationResponse markAsRead(UUID notificationId) {
         UUID userId = SecurityHelper.getCurrentUserId();
@@ -75,8 +127,13 @@ public class NotificationService {
             throw new UnauthorizedException("You don't have permission to access this notification");
         }
 
-        notification.markAsRead();
-        notification = notificationRepository.save(notification);
+        // Conditional update, so concurrent calls move the counters once
+        LocalDateTime readAt = LocalDateTime.now();
+        if (notificationRepository.markAsReadIfUnread(notificationId, readAt) > 0) {
+            notificationCounterRepository.add(List.of(userId), -1, 1, readAt);
+            notification.setStatus(NotificationStatus.READ);
+            notification.setReadAt(readAt);
+        }
 
         log.info("Notification marked as read: {}", notificationId);
         return notificationMapper.toResponse(notification);
@@ -88,7 +145,10 @@ public class NotificationService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
-        notificationRepository.markAllAsReadByUser(user, LocalDateTime.now());
+        int marked = notificationRepository.markAllAsReadByUser(user, LocalDateTime.now());
+        if (marked > 0) {
+            notificationCounterRepository.add(List.of(userId), -marked, marked, LocalDateTime.now());
+        }
         log.info("All notifications marked as read for user: {}", user.getEmail());
     }
 
@@ -102,7 +162,19 @@ public class NotificationService {
             throw new UnauthorizedException("You don't have permission to delete this notification");
         }
 
-        notificationRepository.delete(notification);
+        // Conditional delete, so the counters move by the status actually deleted, and only once
+        NotificationStatus status = notification.getStatus();
+        int deleted = notificationRepository.deleteByIdIfStatus(notificationId, status);
+        if (deleted == 0 && status == NotificationStatus.UNREAD) {
+            // Marked read since it was loaded
+            status = NotificationStatus.READ;
+            deleted = notificationRepository.deleteByIdIfStatus(notificationId, status);
+        }
+        if (deleted > 0 && status == NotificationStatus.UNREAD) {
+            notificationCounterRepository.add(List.of(userId), -1, 0, LocalDateTime.now());
+        } else if (deleted > 0 && status == NotificationStatus.READ) {
+            notificationCounterRepository.add(List.of(userId), 0, -1, LocalDateTime.now());
+        }
         log.info("Notification deleted: {}", notificationId);
     }
 
@@ -113,6 +185,7 @@ public class NotificationService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         notificationRepository.deleteAllByUser(user);
+        notificationCounterRepository.reset(userId, LocalDateTime.now());
         log.info("All notifications deleted for user: {}", user.getEmail());
     }
 
@@ -131,7 +204,9 @@ public class NotificationService {
                 .sentAt(LocalDateTime.now())
                 .build();
 
-        notificationRepository.save(notification);
+        notification = notificationRepository.save(notification);
+        notificationCounterRepository.add(List.of(userId), 1, 0, LocalDateTime.now());
+        eventPublisher.publishEvent(NotificationCreatedEvent.of(userId, notification.getId()));
         log.info("Test notification sent to user: {}", user.getEmail());
     }
 }
\ No newline at end of file
@@ -0,0 +1,225 @@
+package com.lovedev.api.service;
+
+import com.lovedev.api.mapper.NotificationMapper;
+import com.lovedev.api.model.dto.response.NotificationResponse;
+import com.lovedev.api.model.entity.Notification;
+import com.lovedev.api.model.event.NotificationCreatedEvent;
+import com.lovedev.api.repository.NotificationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * In-process fan-out of new notifications to the user's open SSE streams
+ * Emitters are async servlet responses: an idle stream holds no thread, only its emitter and socket.
+ * Notifications are sent after their transaction commits, from notificationStreamExecutor, so a slow
+ * client never holds up the writer. Streams only see notifications created on this node; clients
+ * reconnecting with Last-Event-ID get what they missed from the notifications table.
+ */
+@Component
+@Slf4j
+public class NotificationStreamHub {
+
+    private static final String NOTIFICATION_EVENT = "notification";
+    // Tells the client to refetch: the resume point is gone or too far behind
+    private static final String RESYNC_EVENT = "resync";
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationMapper notificationMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Executor sendExecutor;
+    private final long timeout;
+    private final int maxStreamsPerUser;
+    private final int replayLimit;
+
+    private final ConcurrentMap<UUID, List<SseEmitter>> streams = new ConcurrentHashMap<>();
+
+    public NotificationStreamHub(NotificationRepository notificationRepository,
+                                 NotificationMapper notificationMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Qualifier("notificationStreamExecutor") Executor sendExecutor,
+                                 @Value("${app.notification.stream.timeout:1800000}") long timeout,
+                                 @Value("${app.notification.stream.max-per-user:5}") int maxStreamsPerUser,
+                                 @Value("${app.notification.stream.replay-limit:100}") int replayLimit) {
+        this.notificationRepository = notificationRepository;
+        this.notificationMapper = notificationMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.sendExecutor = sendExecutor;
+        this.timeout = timeout;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.replayLimit = replayLimit;
+    }
+
+    /**
+     * Opens a stream for the user, replaying notifications created after lastEventId (a notification id)
+     * The stream is registered before the replay, so a notification can arrive twice: clients dedupe by id.
+     * Past max-per-user, the user's oldest stream is closed.
+     */
+    public SseEmitter subscribe(UUID userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout);
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(e -> remove(userId, emitter));
+
+        SseEmitter evicted = register(userId, emitter);
+        if (evicted != null) {
+            evicted.complete();
+        }
+
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            replay(userId, emitter, lastEventId.trim());
+        } else {
+            send(userId, emitter, SseEmitter.event().comment("connected"));
+        }
+        return emitter;
+    }
+
+    // ============================================
+    // Live delivery
+    // ============================================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationCreated(NotificationCreatedEvent event) {
+        if (streams.isEmpty()) {
+            return;
+        }
+        List<UUID> notificationIds = new ArrayList<>();
+        for (int i = 0; i < event.getUserIds().size(); i++) {
+            if (streams.containsKey(event.getUserIds().get(i))) {
+                notificationIds.add(event.getNotificationIds().get(i));
+            }
+        }
+        if (!notificationIds.isEmpty()) {
+            sendExecutor.execute(() -> deliver(notificationIds));
+        }
+    }
+
+    private void deliver(List<UUID> notificationIds) {
+        Map<UUID, List<NotificationResponse>> byUser = readOnlyTransaction.execute(tx -> {
+            Map<UUID, List<NotificationResponse>> responses = new HashMap<>();
+            for (Notification notification : notificationRepository.findAllById(notificationIds)) {
+                responses.computeIfAbsent(notification.getUser().getId(), id -> new ArrayList<>())
+                        .add(notificationMapper.toResponse(notification));
+            }
+            return responses;
+        });
+        if (byUser == null) {
+            return;
+        }
+        byUser.forEach((userId, responses) -> {
+            for (SseEmitter emitter : streams.getOrDefault(userId, List.of())) {
+                for (NotificationResponse response : responses) {
+                    if (!send(userId, emitter, toEvent(response))) {
+                        break;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Comment line on every stream: keeps proxies from closing idle streams and finds dead clients
+     */
+    @Scheduled(fixedDelayString = "${app.notification.stream.heartbeat:25000}")
+    public void heartbeat() {
+        if (streams.isEmpty()) {
+            return;
+        }
+        sendExecutor.execute(() -> streams.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("keep-alive"));
+            }
+        }));
+    }
+
+    // ============================================
+    // Resume
+    // ============================================
+
+    private void replay(UUID userId, SseEmitter emitter, String lastEventId) {
+        UUID lastId;
+        try {
+            lastId = UUID.fromString(lastEventId);
+        } catch (IllegalArgumentException e) {
+            send(userId, emitter, SseEmitter.event().name(RESYNC_EVENT).data(""));
+            return;
+        }
+
+        List<NotificationResponse> missed = readOnlyTransaction.execute(tx -> notificationRepository.findById(lastId)
+                .filter(last -> last.getUser().getId().equals(userId))
+                .map(last -> notificationMapper.toResponseList(notificationRepository.findCreatedAfter(
+                        userId, last.getCreatedAt(), last.getId(), PageRequest.of(0, replayLimit + 1))))
+                .orElse(null));
+
+        if (missed == null || missed.size() > replayLimit) {
+            send(userId, emitter, SseEmitter.event().name(RESYNC_EVENT).data(""));
+            return;
+        }
+        for (NotificationResponse response : missed) {
+            if (!send(userId, emitter, toEvent(response))) {
+                return;
+            }
+        }
+    }
+
+    // ============================================
+    // Registry
+    // ============================================
+
+    private SseEmitter register(UUID userId, SseEmitter emitter) {
+        SseEmitter[] evicted = new SseEmitter[1];
+        streams.compute(userId, (id, emitters) -> {
+            List<SseEmitter> updated = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            if (updated.size() >= maxStreamsPerUser) {
+                evicted[0] = updated.remove(0);
+            }
+            updated.add(emitter);
+            return updated;
+        });
+        return evicted[0];
+    }
+
+    private void remove(UUID userId, SseEmitter emitter) {
+        streams.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    /**
+     * Returns false, and drops the stream, when the client is gone
+     */
+    private boolean send(UUID userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream of user {}: {}", userId, e.getMessage());
+            remove(userId, emitter);
+            return false;
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder toEvent(NotificationResponse response) {
+        return SseEmitter.event()
+                .id(response.getId().toString())
+                .name(NOTIFICATION_EVENT)
+                .data(response, MediaType.APPLICATION_JSON);
+    }
+}
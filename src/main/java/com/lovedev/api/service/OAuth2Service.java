@@ -6,12 +6,15 @@ import com.lovedev.api.model.entity.Role;
 import com.lovedev.api.model.entity.User;
 import com.lovedev.api.model.enums.AuditAction;
 import com.lovedev.api.model.enums.UserStatus;
+import com.lovedev.api.model.event.UserChangedEvent;
 import com.lovedev.api.repository.RoleRepository;
 import com.lovedev.api.repository.UserRepository;
 import com.lovedev.api.security.CustomUserDetails;
+import com.lovedev.api.security.CustomUserDetailsService;
 import com.lovedev.api.security.JwtTokenProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -38,6 +41,8 @@ public class OAuth2Service {
     private final JwtTokenProvider jwtTokenProvider;
     private final TokenService tokenService;
     private final AuditService auditService;
+    private final CustomUserDetailsService userDetailsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Process OAuth2 login/registration
@@ -56,7 +61,7 @@ public class OAuth2Service {
         }
 
         // Find or create user
-        User user = userRepository.findByEmail(email)
+        User user = userRepository.findWithRolesByEmail(email)
                 .orElseGet(() -> createOAuth2User(email, firstName, lastName, profilePictureUrl, registrationId));
 
         // Update last login
@@ -70,7 +75,7 @@ public class OAuth2Service {
         user = userRepository.save(user);
 
         // Generate tokens
-        CustomUserDetails userDetails = CustomUserDetails.build(user);
+        CustomUserDetails userDetails = userDetailsService.buildPrincipal(user);
         Authentication authentication = new UsernamePasswordAuthenticationToken(
                 userDetails, null, userDetails.getAuthorities());
 
@@ -119,6 +124,7 @@ public class OAuth2Service {
         user.addRole(userRole);
 
         user = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
 
         log.info("New OAuth2 user created: {} via {}", email, provider);
 
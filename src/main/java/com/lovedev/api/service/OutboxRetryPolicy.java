@@ -0,0 +1,87 @@
+package com.lovedev.api.service;
+
+import com.lovedev.api.repository.OutboxLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Lease and retry rules shared by the outbox dispatchers (PushOutboxDispatcher, MailOutboxDispatcher)
+ * Every claim spends an attempt; a row is retried with exponential backoff and full jitter until
+ * max-attempts, then dead-lettered.
+ */
+@Slf4j
+public class OutboxRetryPolicy {
+
+    private final String rowName;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+    private final long leaseMillis;
+
+    /**
+     * @param rowName what a row is, in log messages ("emails", "push messages")
+     */
+    public OutboxRetryPolicy(String rowName, int maxAttempts, long backoffMillis, long maxBackoffMillis, long leaseMillis) {
+        this.rowName = rowName;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * Lease locked rows, dead-lettering those that are out of attempts; call in the claim transaction
+     *
+     * @return the ids now leased to the caller
+     */
+    public List<UUID> lease(OutboxLeaseRepository repository, List<UUID> lockedIds, LocalDateTime now) {
+        List<UUID> claimed = new ArrayList<>(lockedIds);
+        // Out of attempts but still pending: no outcome was ever recorded for them (crash, bad row)
+        List<UUID> exhausted = repository.findExhaustedIds(claimed, maxAttempts);
+        if (!exhausted.isEmpty()) {
+            repository.markDead(exhausted, "No outcome recorded after " + maxAttempts + " attempts");
+            log.warn("Dead-lettered {} {} whose lease expired {} times", exhausted.size(), rowName, maxAttempts);
+            claimed.removeAll(exhausted);
+            if (claimed.isEmpty()) {
+                return claimed;
+            }
+        }
+        repository.lease(claimed, now.plus(Duration.ofMillis(leaseMillis)));
+        return claimed;
+    }
+
+    /**
+     * Has a row that failed after this many attempts run out of them?
+     */
+    public boolean isExhausted(int attempts) {
+        return attempts >= maxAttempts;
+    }
+
+    /**
+     * When a row that failed after this many attempts is tried again
+     */
+    public LocalDateTime nextAttemptAt(int attempts, LocalDateTime now) {
+        return now.plus(Duration.ofMillis(backoff(attempts)));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    /**
+     * Full jitter: uniform in [0, min(max, base * 2^(attempt - 1))]
+     */
+    private long backoff(int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt - 1, 30);
+        if (ceiling <= 0 || ceiling > maxBackoffMillis) {
+            ceiling = maxBackoffMillis;
+        }
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,30 @@
+package com.lovedev.api.service;
+
+import java.util.List;
+
+/**
+ * Transport for device pushes
+ * Selected by app.notification.push.gateway: firebase (default) or simulated, see PushGatewayConfig.
+ */
+public interface PushGateway {
+
+    /**
+     * Can messages be sent right now? The outbox keeps its rows while this is false.
+     */
+    boolean isAvailable();
+
+    /**
+     * Largest list sendAll accepts
+     */
+    int maxBatchSize();
+
+    /**
+     * One result per message, in order. Failures of the whole call are reported on every message,
+     * never thrown, so callers only have one error path.
+     */
+    List<PushResult> sendAll(List<PushMessage> messages);
+
+    default PushResult send(PushMessage message) {
+        return sendAll(List.of(message)).get(0);
+    }
+}
@@ -0,0 +1,21 @@
+package com.lovedev.api.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Gateway-neutral push for one device token
+ * collapseKey lets the device (and FCM, while it is offline) keep only the newest message with that key;
+ * coalesced is how many queued notifications this message stands for.
+ */
+@Getter
+@AllArgsConstructor
+public class PushMessage {
+
+    private final String token;
+    private final String title;
+    private final String body;
+    private final String data;
+    private final String collapseKey;
+    private final int coalesced;
+}
@@ -0,0 +1,283 @@
+package com.lovedev.api.service;
+
+import com.lovedev.api.repository.FCMTokenRepository;
+import com.lovedev.api.repository.PushOutboxRepository;
+import com.lovedev.api.repository.PushOutboxRepository.PushTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Drains push_outbox
+ * Each round claims up to batch-size due rows (FOR UPDATE SKIP LOCKED + lease, in a short transaction),
+ * sends them through the PushGateway in calls of at most maxBatchSize() on the bounded pushDispatchExecutor, and records
+ * the outcome: delivered rows are deleted, invalid tokens are deactivated, other failures are retried
+ * with exponential backoff and full jitter until max-attempts, then dead-lettered (status DEAD).
+ * No transaction or connection is held while the gateway is called.
+ *
+ * Rows wait coalesce-window before they are claimed. A claim also takes every later row for the same
+ * device tokens, and each token gets one message: the newest notification, sent with the collapse key.
+ * Tokens over their PushRateLimiter budget are deferred without spending an attempt.
+ */
+@Service
+@Slf4j
+public class PushOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final PushOutboxRepository pushOutboxRepository;
+    private final FCMTokenRepository fcmTokenRepository;
+    private final PushGateway pushGateway;
+    private final PushRateLimiter pushRateLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor pushDispatchExecutor;
+    private final int batchSize;
+    private final OutboxRetryPolicy retryPolicy;
+    private final long coalesceWindowMillis;
+    private final String collapseKey;
+
+    public PushOutboxDispatcher(PushOutboxRepository pushOutboxRepository,
+                                FCMTokenRepository fcmTokenRepository,
+                                PushGateway pushGateway,
+                                PushRateLimiter pushRateLimiter,
+                                PlatformTransactionManager transactionManager,
+                                @Qualifier("pushDispatchExecutor") Executor pushDispatchExecutor,
+                                @Value("${app.notification.push.batch-size:2000}") int batchSize,
+                                @Value("${app.notification.push.max-attempts:8}") int maxAttempts,
+                                @Value("${app.notification.push.backoff:5000}") long backoffMillis,
+                                @Value("${app.notification.push.max-backoff:3600000}") long maxBackoffMillis,
+                                @Value("${app.notification.push.lease:120000}") long leaseMillis,
+                                @Value("${app.notification.push.coalesce-window:2000}") long coalesceWindowMillis,
+                                @Value("${app.notification.push.collapse-key:lovedev-notifications}") String collapseKey) {
+        this.pushOutboxRepository = pushOutboxRepository;
+        this.fcmTokenRepository = fcmTokenRepository;
+        this.pushGateway = pushGateway;
+        this.pushRateLimiter = pushRateLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pushDispatchExecutor = pushDispatchExecutor;
+        this.batchSize = batchSize;
+        this.retryPolicy = new OutboxRetryPolicy("push messages", maxAttempts, backoffMillis, maxBackoffMillis, leaseMillis);
+        this.coalesceWindowMillis = coalesceWindowMillis;
+        this.collapseKey = collapseKey.isBlank() ? null : collapseKey;
+    }
+
+    /**
+     * Keeps claiming while full batches come back, so a broadcast drains without waiting for the next tick
+     */
+    @Scheduled(fixedDelayString = "${app.notification.push.dispatch-interval:1000}")
+    public void dispatch() {
+        if (!pushGateway.isAvailable()) {
+            return;
+        }
+        try {
+            List<PushTask> tasks;
+            do {
+                tasks = claim();
+                if (tasks.isEmpty()) {
+                    return;
+                }
+                List<Delivery> deliveries = coalesce(tasks);
+
+                List<CompletableFuture<Void>> sends = new ArrayList<>();
+                int sendSize = pushGateway.maxBatchSize();
+                for (int from = 0; from < deliveries.size(); from += sendSize) {
+                    List<Delivery> part = deliveries.subList(from, Math.min(from + sendSize, deliveries.size()));
+                    sends.add(CompletableFuture.runAsync(() -> send(part), pushDispatchExecutor));
+                }
+                CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+            } while (tasks.size() >= batchSize);
+        } catch (Exception e) {
+            log.error("Push outbox dispatch round failed; leased rows are retried after the lease expires", e);
+        }
+    }
+
+    private List<PushTask> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(tx -> {
+            List<UUID> ids = pushOutboxRepository.lockDueIds(now.minus(Duration.ofMillis(coalesceWindowMillis)), batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            List<UUID> locked = new ArrayList<>(ids);
+            locked.addAll(pushOutboxRepository.lockCoalescibleIds(ids, now));
+            List<UUID> claimed = retryPolicy.lease(pushOutboxRepository, locked, now);
+            if (claimed.isEmpty()) {
+                return List.of();
+            }
+            List<PushTask> tasks = pushOutboxRepository.findTasksByIdIn(claimed);
+            if (tasks.size() < claimed.size()) {
+                // Their notification was deleted (no foreign key on the partitioned table)
+                Set<UUID> found = tasks.stream().map(PushTask::getId).collect(Collectors.toSet());
+                pushOutboxRepository.deleteByIdIn(claimed.stream().filter(id -> !found.contains(id)).toList());
+            }
+            return tasks;
+        });
+    }
+
+    /**
+     * One delivery per device token, carrying the newest notification; rate-limited tokens are deferred
+     */
+    private List<Delivery> coalesce(List<PushTask> tasks) {
+        Map<String, List<PushTask>> byToken = new LinkedHashMap<>();
+        for (PushTask task : tasks) {
+            byToken.computeIfAbsent(task.getToken(), token -> new ArrayList<>()).add(task);
+        }
+
+        List<Delivery> deliveries = new ArrayList<>(byToken.size());
+        Map<Long, List<UUID>> deferred = new HashMap<>();
+        byToken.forEach((token, rows) -> {
+            long waitMillis = pushRateLimiter.tryAcquire(token);
+            if (waitMillis > 0) {
+                // Whole seconds, so a burst is deferred with a handful of statements
+                long waitSeconds = (waitMillis + 999) / 1000;
+                List<UUID> ids = deferred.computeIfAbsent(waitSeconds * 1000, wait -> new ArrayList<>());
+                rows.forEach(row -> ids.add(row.getId()));
+                return;
+            }
+            PushTask newest = Collections.max(rows, Comparator.comparing(PushTask::getCreatedAt));
+            deliveries.add(new Delivery(rows, new PushMessage(token, newest.getTitle(), newest.getBody(),
+                    newest.getData(), collapseKey, rows.size())));
+        });
+
+        if (!deferred.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                transactionTemplate.executeWithoutResult(tx -> deferred.forEach((waitMillis, ids) ->
+                        pushOutboxRepository.defer(ids, now.plus(Duration.ofMillis(waitMillis)))));
+                log.debug("Rate limited pushes to {} device tokens", deferred.values().stream().mapToInt(List::size).sum());
+            } catch (DataAccessException e) {
+                // Rows stay leased and come back after the lease
+                log.error("Failed to defer rate-limited pushes", e);
+            }
+        }
+        return deliveries;
+    }
+
+    private void send(List<Delivery> deliveries) {
+        List<PushMessage> messages = new ArrayList<>(deliveries.size());
+        for (Delivery delivery : deliveries) {
+            messages.add(delivery.message);
+        }
+
+        Outcome outcome = new Outcome();
+        try {
+            List<PushResult> results = pushGateway.sendAll(messages);
+            for (int i = 0; i < results.size(); i++) {
+                outcome.add(deliveries.get(i).rows, results.get(i));
+            }
+        } catch (RuntimeException e) {
+            // Gateways report failures per message; anything thrown is a bug, so retry the part
+            // and let max-attempts dead-letter it rather than re-sending it forever
+            log.error("Push gateway failed on {} messages", messages.size(), e);
+            outcome.clear();
+            for (Delivery delivery : deliveries) {
+                outcome.retry(delivery.rows, e.toString());
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(tx -> record(outcome));
+        } catch (DataAccessException e) {
+            // Rows stay leased and are sent again after the lease: at-least-once delivery
+            log.error("Failed to record outcome of {} push messages", messages.size(), e);
+        }
+    }
+
+    private void record(Outcome outcome) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<UUID> finished = new ArrayList<>(outcome.delivered.size() + outcome.invalid.size());
+        if (!outcome.delivered.isEmpty()) {
+            fcmTokenRepository.touchTokens(tokens(outcome.delivered), now);
+            outcome.delivered.forEach(task -> finished.add(task.getId()));
+        }
+        if (!outcome.invalid.isEmpty()) {
+            List<String> invalidTokens = tokens(outcome.invalid);
+            fcmTokenRepository.deactivateTokens(invalidTokens, now);
+            outcome.invalid.forEach(task -> finished.add(task.getId()));
+            log.info("Deactivated {} invalid FCM tokens", invalidTokens.size());
+        }
+        if (!finished.isEmpty()) {
+            pushOutboxRepository.deleteByIdIn(finished);
+        }
+
+        // A coalesced group keeps one schedule, so its rows are claimed together again
+        Map<String, List<UUID>> dead = new HashMap<>();
+        for (Retry retry : outcome.retries) {
+            int attempts = retry.rows.stream().mapToInt(PushTask::getAttempts).max().orElse(0);
+            List<UUID> ids = retry.rows.stream().map(PushTask::getId).toList();
+            if (retryPolicy.isExhausted(attempts)) {
+                dead.computeIfAbsent(retry.error, e -> new ArrayList<>()).addAll(ids);
+            } else {
+                pushOutboxRepository.reschedule(ids, retryPolicy.nextAttemptAt(attempts, now), retry.error);
+            }
+        }
+        dead.forEach((error, ids) -> {
+            pushOutboxRepository.markDead(ids, error);
+            log.warn("Dead-lettered {} push messages after {} attempts: {}", ids.size(), retryPolicy.getMaxAttempts(), error);
+        });
+    }
+
+    private static List<String> tokens(List<PushTask> tasks) {
+        return tasks.stream().map(PushTask::getToken).distinct().toList();
+    }
+
+    private static final class Outcome {
+        private final List<PushTask> delivered = new ArrayList<>();
+        private final List<PushTask> invalid = new ArrayList<>();
+        private final List<Retry> retries = new ArrayList<>();
+
+        private void add(List<PushTask> rows, PushResult result) {
+            if (result.isDelivered()) {
+                delivered.addAll(rows);
+            } else if (result.isTokenInvalid()) {
+                invalid.addAll(rows);
+            } else {
+                retry(rows, result.getError() != null ? result.getError() : "UNKNOWN");
+            }
+        }
+
+        private void retry(List<PushTask> rows, String error) {
+            String truncated = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+            retries.add(new Retry(rows, truncated));
+        }
+
+        private void clear() {
+            delivered.clear();
+            invalid.clear();
+            retries.clear();
+        }
+    }
+
+    private static final class Delivery {
+        private final List<PushTask> rows;
+        private final PushMessage message;
+
+        private Delivery(List<PushTask> rows, PushMessage message) {
+            this.rows = rows;
+            this.message = message;
+        }
+    }
+
+    private static final class Retry {
+        private final List<PushTask> rows;
+        private final String error;
+
+        private Retry(List<PushTask> rows, String error) {
+            this.rows = rows;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.lovedev.api.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-device-token token bucket for outgoing pushes
+ * Each token may burst up to burst messages, then gets per-minute messages per minute.
+ * Buckets idle long enough to be full again are dropped; the limit is per node.
+ * Disabled when per-minute is 0.
+ */
+@Component
+@Slf4j
+public class PushRateLimiter {
+
+    private final boolean enabled;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Cache<String, Bucket> buckets;
+
+    public PushRateLimiter(@Value("${app.notification.push.rate-limit.per-minute:60}") int perMinute,
+                           @Value("${app.notification.push.rate-limit.burst:10}") int burst,
+                           @Value("${app.notification.push.rate-limit.max-tokens:100000}") long maxTokens) {
+        this.enabled = perMinute > 0;
+        this.capacity = Math.max(1, burst);
+        this.tokensPerNano = perMinute / (double) Duration.ofMinutes(1).toNanos();
+        long refillNanos = enabled ? (long) Math.ceil(capacity / tokensPerNano) : 0;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTokens)
+                .expireAfterAccess(Duration.ofNanos(Math.max(refillNanos, 1)))
+                .build();
+
+        log.info("Push rate limit: {}", enabled ? perMinute + "/min per token, burst " + burst : "disabled");
+    }
+
+    /**
+     * Takes one permit for the device token
+     * Returns 0 when the push may go now, otherwise how many milliseconds until a permit is available.
+     */
+    public long tryAcquire(String token) {
+        if (!enabled) {
+            return 0;
+        }
+        return buckets.get(token, t -> new Bucket(capacity)).tryAcquire(capacity, tokensPerNano);
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        private Bucket(double tokens) {
+            this.tokens = tokens;
+        }
+
+        private synchronized long tryAcquire(double capacity, double tokensPerNano) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / tokensPerNano / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.lovedev.api.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one PushMessage
+ * tokenInvalid means the device token will never work again and should be deactivated;
+ * any other failure is worth retrying.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PushResult {
+
+    private static final PushResult DELIVERED = new PushResult(true, false, null);
+
+    private final boolean delivered;
+    private final boolean tokenInvalid;
+    private final String error;
+
+    public static PushResult delivered() {
+        return DELIVERED;
+    }
+
+    public static PushResult invalidToken(String error) {
+        return new PushResult(false, true, error);
+    }
+
+    public static PushResult failed(String error) {
+        return new PushResult(false, false, error);
+    }
+}
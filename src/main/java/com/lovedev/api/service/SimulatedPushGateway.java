@@ -0,0 +1,130 @@
+package com.lovedev.api.service;
+
+import com.google.firebase.messaging.MessagingErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * In-process PushGateway for load tests: nothing leaves the JVM
+ * Every sendAll call sleeps latency ± jitter (one round trip per batch, like sendEach), then fails
+ * each message at random with UNREGISTERED (invalidTokenRate) or UNAVAILABLE (errorRate). Tokens
+ * starting with a configured prefix always fail with that prefix's error code, e.g. "dead-:UNREGISTERED".
+ */
+@Slf4j
+public class SimulatedPushGateway implements PushGateway {
+
+    private static final int MAX_BATCH_SIZE = 500;
+
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final double invalidTokenRate;
+    private final Map<String, MessagingErrorCode> tokenErrors;
+
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile Consumer<PushMessage> deliveryListener = message -> { };
+
+    public SimulatedPushGateway(long latencyMillis, long jitterMillis, double errorRate, double invalidTokenRate,
+                                Map<String, MessagingErrorCode> tokenErrors) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.invalidTokenRate = invalidTokenRate;
+        this.tokenErrors = Map.copyOf(tokenErrors);
+    }
+
+    /**
+     * Parses "prefix:CODE,prefix:CODE" (MessagingErrorCode names)
+     */
+    public static Map<String, MessagingErrorCode> parseTokenErrors(String spec) {
+        Map<String, MessagingErrorCode> tokenErrors = new LinkedHashMap<>();
+        if (spec == null || spec.isBlank()) {
+            return tokenErrors;
+        }
+        for (String pair : spec.split(",")) {
+            int separator = pair.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid token error mapping (expected prefix:CODE): " + pair);
+            }
+            tokenErrors.put(pair.substring(0, separator).trim(),
+                    MessagingErrorCode.valueOf(pair.substring(separator + 1).trim().toUpperCase()));
+        }
+        return tokenErrors;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return MAX_BATCH_SIZE;
+    }
+
+    @Override
+    public List<PushResult> sendAll(List<PushMessage> messages) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(-jitterMillis, jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        List<PushResult> results = new ArrayList<>(messages.size());
+        for (PushMessage message : messages) {
+            MessagingErrorCode errorCode = errorFor(message.getToken(), random);
+            if (errorCode == null) {
+                results.add(PushResult.delivered());
+                delivered.increment();
+                deliveryListener.accept(message);
+            } else {
+                results.add(FirebasePushGateway.toResult(errorCode, "simulated"));
+                failed.increment();
+            }
+        }
+        return results;
+    }
+
+    private MessagingErrorCode errorFor(String token, ThreadLocalRandom random) {
+        for (Map.Entry<String, MessagingErrorCode> tokenError : tokenErrors.entrySet()) {
+            if (token.startsWith(tokenError.getKey())) {
+                return tokenError.getValue();
+            }
+        }
+        double roll = random.nextDouble();
+        if (roll < invalidTokenRate) {
+            return MessagingErrorCode.UNREGISTERED;
+        }
+        if (roll < invalidTokenRate + errorRate) {
+            return MessagingErrorCode.UNAVAILABLE;
+        }
+        return null;
+    }
+
+    /**
+     * Called on the sending thread for every delivered message (load-test instrumentation)
+     */
+    public void setDeliveryListener(Consumer<PushMessage> deliveryListener) {
+        this.deliveryListener = deliveryListener != null ? deliveryListener : message -> { };
+    }
+
+    public long getDeliveredCount() {
+        return delivered.sum();
+    }
+
+    public long getFailedCount() {
+        return failed.sum();
+    }
+}
@@ -0,0 +1,172 @@
+package com.lovedev.api.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reusable SMTP connections for MailOutboxDispatcher
+ * Settings (host, credentials, mail.smtp.* timeouts) come from the spring.mail JavaMailSenderImpl.
+ * At most pool-size connections exist at once; borrow blocks beyond that. A connection is kept open
+ * between messages, so a burst costs one handshake (TCP, STARTTLS, AUTH) per connection rather than
+ * per mail. Connections are closed after max-messages-per-connection messages (servers cap this),
+ * when idle longer than idle-timeout, or after an error.
+ */
+@Component
+@Slf4j
+public class SmtpConnectionPool {
+
+    // A connection idle for longer than this is checked (SMTP NOOP) before it is handed out
+    private static final long VALIDATE_AFTER_IDLE_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final JavaMailSenderImpl mailSender;
+    private final Semaphore permits;
+    // Most recently used first: the connections at the tail are the ones left to expire
+    private final BlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutNanos;
+
+    public SmtpConnectionPool(JavaMailSenderImpl mailSender,
+                              @Value("${app.email.queue.concurrency:4}") int poolSize,
+                              @Value("${app.email.queue.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                              @Value("${app.email.queue.idle-timeout:30000}") long idleTimeoutMillis) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(poolSize, true);
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+    }
+
+    public Session getSession() {
+        return mailSender.getSession();
+    }
+
+    /**
+     * An open connection, to be handed back with release
+     */
+    public Connection borrow() throws MessagingException, InterruptedException {
+        permits.acquire();
+        try {
+            Connection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (connection.isReusable()) {
+                    return connection;
+                }
+                connection.close();
+            }
+            return connect();
+        } catch (MessagingException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(Connection connection) {
+        try {
+            if (connection.broken || connection.sent >= maxMessagesPerConnection) {
+                connection.close();
+            } else {
+                connection.lastUsed = System.nanoTime();
+                idle.offerFirst(connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.email.queue.idle-timeout:30000}")
+    public void closeIdle() {
+        long now = System.nanoTime();
+        Connection connection;
+        while ((connection = idle.peekLast()) != null && now - connection.lastUsed > idleTimeoutNanos) {
+            if (idle.removeLastOccurrence(connection)) {
+                connection.close();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<Connection> connections = new ArrayList<>();
+        idle.drainTo(connections);
+        connections.forEach(Connection::close);
+    }
+
+    private Connection connect() throws MessagingException {
+        Transport transport = getSession().getTransport(mailSender.getProtocol());
+        String username = mailSender.getUsername();
+        String password = mailSender.getPassword();
+        if ("".equals(username)) {
+            username = null;
+            password = null;
+        }
+        transport.connect(mailSender.getHost(), mailSender.getPort(), username, password);
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new Connection(transport);
+    }
+
+    /**
+     * One open SMTP session; used by a single thread between borrow and release
+     */
+    public final class Connection {
+
+        private final Transport transport;
+        private int sent;
+        private long lastUsed = System.nanoTime();
+        private boolean broken;
+
+        private Connection(Transport transport) {
+            this.transport = transport;
+        }
+
+        /**
+         * Send one message; a failure other than a rejected message or recipient breaks the connection
+         */
+        public void send(MimeMessage message) throws MessagingException {
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+                sent++;
+            } catch (SendFailedException e) {
+                // The server answered: the session is still in a clean state
+                throw e;
+            } catch (MessagingException | RuntimeException e) {
+                broken = true;
+                throw e;
+            }
+        }
+
+        public boolean isBroken() {
+            return broken;
+        }
+
+        private boolean isReusable() {
+            if (System.nanoTime() - lastUsed > idleTimeoutNanos) {
+                return false;
+            }
+            // isConnected() sends a NOOP: only worth the round trip after the server had time to drop us
+            return System.nanoTime() - lastUsed < VALIDATE_AFTER_IDLE_NANOS || transport.isConnected();
+        }
+
+        private void close() {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.lovedev.api.service;
+
+import com.lovedev.api.model.dto.response.UserSuggestionResponse;
+import com.lovedev.api.model.enums.UserStatus;
+import com.lovedev.api.model.event.UserChangedEvent;
+import com.lovedev.api.repository.UserRepository;
+import lombok.EqualsAndHashCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory user index for admin typeahead
+ * Names and email are split into tokens; every token prefix (up to MAX_PREFIX_LENGTH) and
+ * every whole token maps to the users carrying it, kept sorted by name so the best hits are
+ * found by walking a posting list in order and stopping early. Status, emailVerified and
+ * roles are checked as facets on the candidates. Built at startup from a streamed scan, kept current by
+ * UserChangedEvent after commit, and reconciled against the database periodically to
+ * repair anything the events missed (other nodes, out-of-order commits, direct SQL).
+ * Disabled by default (app.search.user-index.enabled).
+ */
+@Service
+@Slf4j
+public class UserSearchIndex {
+
+    private static final int MAX_PREFIX_LENGTH = 12;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    // PostgreSQL orders uuid by unsigned bytes, UUID.compareTo by signed longs
+    private static final Comparator<UUID> DB_UUID_ORDER = Comparator
+            .comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    private static final Comparator<Entry> NAME_ORDER = Comparator
+            .comparing((Entry entry) -> entry.sortKey)
+            .thenComparing(entry -> entry.id);
+
+    private static final Comparator<Hit> RANKING = Comparator
+            .comparingInt((Hit hit) -> hit.score).reversed()
+            .thenComparing(hit -> hit.entry, NAME_ORDER);
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+    // token prefix -> users carrying it, and whole token -> users carrying it, both in NAME_ORDER
+    private final Map<String, NavigableSet<Entry>> prefixPostings = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<Entry>> tokenPostings = new ConcurrentHashMap<>();
+
+    // Users changed by events since the current scan started; the scan must not overwrite them
+    private final Set<UUID> changedDuringScan = ConcurrentHashMap.newKeySet();
+    private final Object scanLock = new Object();
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserRepository userRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.search.user-index.enabled:false}") boolean enabled) {
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+    }
+
+    /**
+     * Is the index enabled and fully built?
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Users whose name or email tokens start with every query term, best matches first
+     * Terms matching a whole token rank above prefix matches; ties are ordered by name.
+     */
+    public List<UserSuggestionResponse> search(String query, UserStatus status, Boolean emailVerified,
+                                               String roleName, int limit) {
+        String[] terms = tokenize(query).toArray(String[]::new);
+        if (terms.length == 0 || limit <= 0) {
+            return List.of();
+        }
+
+        if (terms.length == 1) {
+            return searchSingleTerm(terms[0], status, emailVerified, roleName, limit);
+        }
+
+        // Smallest posting list drives the scan; the other terms are verified per entry
+        NavigableSet<Entry> candidates = null;
+        for (String term : terms) {
+            NavigableSet<Entry> posting = prefixPostings.get(prefixKey(term));
+            if (posting == null) {
+                return List.of();
+            }
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+
+        // Candidates arrive in name order, so a hit only displaces the worst kept one on a higher score,
+        // and once every kept hit has the maximum score nothing later can rank above them
+        PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        for (Entry entry : candidates) {
+            if (!entry.matchesFacets(status, emailVerified, roleName)) {
+                continue;
+            }
+            int score = entry.score(terms);
+            if (score < 0 || (top.size() == limit && score <= top.peek().score) || !isCurrent(entry)) {
+                continue;
+            }
+            if (top.size() == limit) {
+                top.poll();
+            }
+            top.add(new Hit(entry, score));
+            if (top.size() == limit && top.peek().score == terms.length) {
+                break;
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>(top);
+        hits.sort(RANKING);
+        return hits.stream().map(hit -> hit.entry.toResponse()).toList();
+    }
+
+    /**
+     * Whole-token matches first, then prefix matches, each already in name order: O(limit) walks
+     */
+    private List<UserSuggestionResponse> searchSingleTerm(String term, UserStatus status, Boolean emailVerified,
+                                                          String roleName, int limit) {
+        List<UserSuggestionResponse> results = new ArrayList<>(limit);
+        NavigableSet<Entry> exact = tokenPostings.get(term);
+        if (exact != null) {
+            for (Entry entry : exact) {
+                if (entry.matchesFacets(status, emailVerified, roleName) && isCurrent(entry)) {
+                    results.add(entry.toResponse());
+                    if (results.size() == limit) {
+                        return results;
+                    }
+                }
+            }
+        }
+
+        NavigableSet<Entry> prefixed = prefixPostings.get(prefixKey(term));
+        if (prefixed != null) {
+            String[] terms = {term};
+            for (Entry entry : prefixed) {
+                // score 0: prefix-only match (1 was taken above, -1 is a longer term that diverges past the key)
+                if (entry.matchesFacets(status, emailVerified, roleName) && entry.score(terms) == 0 && isCurrent(entry)) {
+                    results.add(entry.toResponse());
+                    if (results.size() == limit) {
+                        break;
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            changedDuringScan.add(event.getUserId());
+            if (event.isDeleted()) {
+                remove(event.getUserId());
+            } else {
+                put(new Entry(event.getUserId(), event.getEmail(), event.getFirstName(), event.getLastName(),
+                        event.getStatus(), event.getEmailVerified(), event.getRoleNames()));
+            }
+        }
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            ScanResult result = synchronizeWithDatabase();
+            ready = true;
+            log.info("User search index built: {} users, {} terms in {} ms",
+                    result.scanned, prefixPostings.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.error("Failed to build user search index; typeahead falls back to the database", e);
+        }
+    }
+
+    /**
+     * Consistency check: rescan the users table and repair drifted entries
+     */
+    @Scheduled(fixedDelayString = "${app.search.user-index.reconcile-interval:600000}",
+            initialDelayString = "${app.search.user-index.reconcile-interval:600000}")
+    public void reconcile() {
+        if (!isReady()) {
+            return;
+        }
+        try {
+            ScanResult result = synchronizeWithDatabase();
+            if (result.updated > 0 || result.removed > 0) {
+                log.warn("User search index reconciled: {} entries updated, {} removed out of {}",
+                        result.updated, result.removed, result.scanned);
+            } else {
+                log.debug("User search index consistent: {} users", result.scanned);
+            }
+        } catch (Exception e) {
+            log.error("Failed to reconcile user search index", e);
+        }
+    }
+
+    private ScanResult synchronizeWithDatabase() {
+        synchronized (scanLock) {
+            changedDuringScan.clear();
+            ScanResult result = new ScanResult();
+            Set<UUID> seen = new HashSet<>(Math.max(16, entries.size() * 2));
+
+            readOnlyTransaction.executeWithoutResult(tx -> {
+                try (Stream<UserRepository.SearchRow> rows = userRepository.streamSearchRows();
+                     Stream<UserRepository.RoleRow> roleRows = userRepository.streamRoleRows()) {
+                    // Both streams are ordered by user id: merge instead of materializing a role map
+                    Iterator<UserRepository.RoleRow> roles = roleRows.iterator();
+                    UserRepository.RoleRow pending = roles.hasNext() ? roles.next() : null;
+
+                    for (Iterator<UserRepository.SearchRow> it = rows.iterator(); it.hasNext(); ) {
+                        UserRepository.SearchRow row = it.next();
+                        Set<String> roleNames = new HashSet<>();
+                        while (pending != null && DB_UUID_ORDER.compare(pending.getUserId(), row.getId()) <= 0) {
+                            if (pending.getUserId().equals(row.getId())) {
+                                roleNames.add(pending.getRoleName());
+                            }
+                            pending = roles.hasNext() ? roles.next() : null;
+                        }
+
+                        Entry entry = new Entry(row.getId(), row.getEmail(), row.getFirstName(), row.getLastName(),
+                                row.getStatus(), row.getEmailVerified(), roleNames);
+                        seen.add(entry.id);
+                        result.scanned++;
+                        synchronized (this) {
+                            if (!changedDuringScan.contains(entry.id) && !entry.equals(entries.get(entry.id))) {
+                                put(entry);
+                                result.updated++;
+                            }
+                        }
+                    }
+                }
+            });
+
+            synchronized (this) {
+                for (UUID id : new ArrayList<>(entries.keySet())) {
+                    if (!seen.contains(id) && !changedDuringScan.contains(id)) {
+                        remove(id);
+                        result.removed++;
+                    }
+                }
+            }
+
+            // The first build counts every entry as updated; only drift is interesting afterwards
+            if (!ready) {
+                result.updated = 0;
+            }
+            return result;
+        }
+    }
+
+    // Writers hold the monitor; readers only see concurrent-collection updates.
+    // A replaced entry is unlinked before its successor is linked (both sort equal when the name is
+    // unchanged), so a reader may briefly miss the user but never sees it twice.
+    private void put(Entry entry) {
+        Entry previous = entries.put(entry.id, entry);
+        if (previous != null) {
+            unlinkAll(previous);
+        }
+        for (String term : entry.terms()) {
+            prefixPostings.computeIfAbsent(term, t -> new ConcurrentSkipListSet<>(NAME_ORDER)).add(entry);
+        }
+        for (String token : entry.tokens) {
+            tokenPostings.computeIfAbsent(token, t -> new ConcurrentSkipListSet<>(NAME_ORDER)).add(entry);
+        }
+    }
+
+    private void remove(UUID id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            unlinkAll(previous);
+        }
+    }
+
+    private void unlinkAll(Entry entry) {
+        for (String term : entry.terms()) {
+            unlink(prefixPostings, term, entry);
+        }
+        for (String token : entry.tokens) {
+            unlink(tokenPostings, token, entry);
+        }
+    }
+
+    private static void unlink(Map<String, NavigableSet<Entry>> postings, String key, Entry entry) {
+        postings.computeIfPresent(key, (k, posting) -> {
+            posting.remove(entry);
+            return posting.isEmpty() ? null : posting;
+        });
+    }
+
+    /**
+     * Skips entries a concurrent update has already replaced
+     */
+    private boolean isCurrent(Entry entry) {
+        return entries.get(entry.id) == entry;
+    }
+
+    private static String prefixKey(String term) {
+        return term.length() > MAX_PREFIX_LENGTH ? term.substring(0, MAX_PREFIX_LENGTH) : term;
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    @EqualsAndHashCode(exclude = {"tokens", "sortKey"})
+    private static final class Entry {
+        private final UUID id;
+        private final String email;
+        private final String firstName;
+        private final String lastName;
+        private final UserStatus status;
+        private final Boolean emailVerified;
+        private final Set<String> roleNames;
+        private final String[] tokens;
+        private final String sortKey;
+
+        private Entry(UUID id, String email, String firstName, String lastName,
+                      UserStatus status, Boolean emailVerified, Set<String> roleNames) {
+            this.id = id;
+            this.email = email;
+            this.firstName = firstName;
+            this.lastName = lastName;
+            this.status = status;
+            this.emailVerified = emailVerified;
+            this.roleNames = Set.copyOf(roleNames);
+
+            Set<String> tokenSet = new LinkedHashSet<>();
+            tokenSet.addAll(tokenize(firstName));
+            tokenSet.addAll(tokenize(lastName));
+            tokenSet.addAll(tokenize(email));
+            this.tokens = tokenSet.toArray(String[]::new);
+            this.sortKey = (firstName + " " + lastName + " " + email).toLowerCase(Locale.ROOT);
+        }
+
+        private Set<String> terms() {
+            Set<String> terms = new HashSet<>();
+            for (String token : tokens) {
+                int max = Math.min(token.length(), MAX_PREFIX_LENGTH);
+                for (int length = 1; length <= max; length++) {
+                    terms.add(token.substring(0, length));
+                }
+            }
+            return terms;
+        }
+
+        private boolean matchesFacets(UserStatus status, Boolean emailVerified, String roleName) {
+            return (status == null || status == this.status)
+                    && (emailVerified == null || emailVerified.equals(this.emailVerified))
+                    && (roleName == null || roleNames.contains(roleName));
+        }
+
+        /**
+         * Number of terms equal to a whole token, or -1 if some term prefixes no token
+         */
+        private int score(String[] terms) {
+            int score = 0;
+            for (String term : terms) {
+                int match = -1;
+                for (String token : tokens) {
+                    if (token.equals(term)) {
+                        match = 1;
+                        break;
+                    }
+                    if (token.startsWith(term)) {
+                        match = 0;
+                    }
+                }
+                if (match < 0) {
+                    return -1;
+                }
+                score += match;
+            }
+            return score;
+        }
+
+        private UserSuggestionResponse toResponse() {
+            return UserSuggestionResponse.builder()
+                    .id(id)
+                    .email(email)
+                    .fullName(firstName + " " + lastName)
+                    .status(status)
+                    .emailVerified(emailVerified)
+                    .roles(roleNames)
+                    .build();
+        }
+    }
+
+    private static final class Hit {
+        private final Entry entry;
+        private final int score;
+
+        private Hit(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    private static final class ScanResult {
+        private int scanned;
+        private int updated;
+        private int removed;
+    }
+}
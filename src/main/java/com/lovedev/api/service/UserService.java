@@ -5,22 +5,30 @@ import com.lovedev.api.exception.ResourceNotFoundException;
 import com.lovedev.api.exception.UnauthorizedException;
 import com.lovedev.api.mapper.UserMapper;
 import com.lovedev.api.model.dto.request.*;
+import com.lovedev.api.model.dto.response.CursorPageResponse;
 import com.lovedev.api.model.dto.response.PageResponse;
 import com.lovedev.api.model.dto.response.UserResponse;
+import com.lovedev.api.model.dto.response.UserSuggestionResponse;
 import com.lovedev.api.model.entity.Role;
 import com.lovedev.api.model.entity.User;
 import com.lovedev.api.model.enums.AuditAction;
 import com.lovedev.api.model.enums.UserStatus;
+import com.lovedev.api.model.event.UserChangedEvent;
 import com.lovedev.api.repository.RoleRepository;
 import com.lovedev.api.repository.UserRepository;
+import com.lovedev.api.repository.UserSpecifications;
 import com.lovedev.api.security.CustomUserDetails;
+import com.lovedev.api.security.PrincipalCache;
+import com.lovedev.api.security.TokenRevocationList;
+import com.lovedev.api.util.AuditFields;
+import com.lovedev.api.util.CursorCodec;
+import com.lovedev.api.util.FieldDiffer;
 import com.lovedev.api.util.SecurityHelper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -44,6 +52,19 @@ public class UserService {
     private final AuditService auditService;
     private final FileStorageService fileStorageService;
     private final FCMService fcmService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationList tokenRevocationList;
+    private final UserSearchIndex userSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Non-null columns only: keyset predicates cannot order NULLs consistently
+    private static final Set<String> CURSOR_SORT_FIELDS = Set.of("createdAt", "email", "firstName", "lastName");
+    private static final String CURSOR_SORT_KEY = "sort";
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    private static final String SORT_BY_RELEVANCE = "relevance";
+    // Without a keyword there is nothing to rank by
+    private static final String DEFAULT_SORT_FIELD = "createdAt";
+    private static final int MAX_SUGGESTIONS = 20;
 
     // ============================================
     // Profile Management (Current User)
@@ -51,24 +72,25 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public UserResponse getCurrentUser() {
-        User user = getCurrentUserEntity();
+        User user = getCurrentUserWithRoles();
         return userMapper.toResponse(user);
     }
 
     @Transactional
     public UserResponse updateCurrentUser(UpdateUserRequest request) {
-        User user = getCurrentUserEntity();
+        User user = getCurrentUserWithRoles();
 
-        Map<String, Object> oldValues = captureUserValues(user);
+        Object[] before = AuditFields.USER_PROFILE.snapshot(user);
 
         userMapper.updateUserFromRequest(request, user);
         user = userRepository.save(user);
 
-        Map<String, Object> newValues = captureUserValues(user);
+        FieldDiffer.Diff diff = AuditFields.USER_PROFILE.diff(before, user);
+        publishUserChanged(user);
 
         log.info("User updated: {}", user.getEmail());
-        auditService.logAction(user, AuditAction.UPDATE, "User",
-                user.getId().toString(), oldValues, newValues, "User profile updated");
+        auditService.logChange(user, AuditAction.UPDATE, "User",
+                user.getId().toString(), diff, "User profile updated");
 
         return userMapper.toResponse(user);
     }
@@ -90,7 +112,7 @@ public class UserService {
 
     @Transactional
     public UserResponse uploadAvatar(MultipartFile file) {
-        User user = getCurrentUserEntity();
+        User user = getCurrentUserWithRoles();
 
         // Delete old avatar if exists
         if (user.getProfilePictureUrl() != null) {
@@ -130,7 +152,7 @@ public class UserService {
 
     @Transactional(readOnly = true)
     public UserResponse getUserById(UUID id) {
-        User user = userRepository.findById(id)
+        User user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         return userMapper.toResponse(user);
     }
@@ -138,12 +160,6 @@ public class UserService {
     @Transactional(readOnly = true)
     public PageResponse<UserResponse> searchUsers(UserSearchRequest searchRequest,
                                                   int page, int size, String sortBy, String sortDir) {
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
-
-        Pageable pageable = PageRequest.of(page, size, sort);
-
         String keyword = searchRequest.getKeyword();
         if (keyword != null && !keyword.isEmpty()) {
             keyword = keyword.toLowerCase().trim();
@@ -151,15 +167,35 @@ public class UserService {
             keyword = null; // Explicitly set to null
         }
 
-        Page<User> userPage;
+        String sortField = keyword == null && SORT_BY_RELEVANCE.equalsIgnoreCase(sortBy) ? DEFAULT_SORT_FIELD : sortBy;
+        Sort sort = sortDir.equalsIgnoreCase("desc")
+                ? Sort.by(sortField).descending()
+                : Sort.by(sortField).ascending();
+
+        Pageable pageable = PageRequest.of(page, size, sort);
 
-        // If role filter is provided, use the role-aware search
-        if (searchRequest.getRoleName() != null && !searchRequest.getRoleName().isEmpty()) {
+        Page<User> userPage;
+        String roleName = searchRequest.getRoleName() != null && !searchRequest.getRoleName().isEmpty()
+                ? searchRequest.getRoleName()
+                : null;
+
+        if (keyword != null && SORT_BY_RELEVANCE.equalsIgnoreCase(sortBy)) {
+            // Trigram-ranked search, best matches first
+            userPage = userRepository.searchUsersRanked(
+                    escapeLike(keyword),
+                    keyword,
+                    searchRequest.getStatus() != null ? searchRequest.getStatus().name() : null,
+                    searchRequest.getEmailVerified(),
+                    roleName,
+                    PageRequest.of(page, size)
+            );
+        } else if (roleName != null) {
+            // If role filter is provided, use the role-aware search
             userPage = userRepository.searchUsersWithRole(
                     keyword,
                     searchRequest.getStatus(),
                     searchRequest.getEmailVerified(),
-                    searchRequest.getRoleName(),
+                    roleName,
                     pageable
             );
         } else {
@@ -172,7 +208,13 @@ public class UserService {
             );
         }
 
-        List<UserResponse> userResponses = userMapper.toResponseList(userPage.getContent());
+        // Initialize roles for the whole page in one statement (no per-row lazy loads)
+        List<User> users = userPage.getContent();
+        if (!users.isEmpty()) {
+            userRepository.findAllWithRolesByIdIn(users.stream().map(User::getId).toList());
+        }
+
+        List<UserResponse> userResponses = userMapper.toResponseList(users);
 
         return PageResponse.<UserResponse>builder()
                 .content(userResponses)
@@ -188,43 +230,154 @@ public class UserService {
                 .build();
     }
 
+    /**
+     * Keyset (cursor) variant of searchUsers
+     * Pages are keyed on (sortBy, id), so deep pages cost the same as the first one.
+     * The total is only computed when requested: a pg_class estimate for unfiltered
+     * queries, an exact count otherwise.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageResponse<UserResponse> searchUsersByCursor(UserSearchRequest searchRequest, String cursor,
+                                                                int size, String sortBy, String sortDir,
+                                                                boolean withTotal) {
+        if (!CURSOR_SORT_FIELDS.contains(sortBy)) {
+            throw new BadRequestException("Cursor pagination supports sortBy: " + CURSOR_SORT_FIELDS);
+        }
+
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direction, sortBy, "id");
+        String sortKey = sortBy + "," + direction.name();
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+
+        KeysetScrollPosition position = ScrollPosition.keyset();
+        if (cursor != null && !cursor.isEmpty()) {
+            Map<String, Object> keys = CursorCodec.decode(cursor);
+            if (!sortKey.equals(keys.remove(CURSOR_SORT_KEY)) || !keys.keySet().equals(Set.of(sortBy, "id"))) {
+                throw new BadRequestException("Cursor does not match the requested sort");
+            }
+            position = ScrollPosition.forward(keys);
+        }
+
+        String keyword = searchRequest.getKeyword();
+        keyword = keyword != null && !keyword.isBlank() ? keyword.toLowerCase().trim() : null;
+        Specification<User> spec = UserSpecifications.search(
+                keyword, searchRequest.getStatus(), searchRequest.getEmailVerified(), searchRequest.getRoleName());
+
+        KeysetScrollPosition start = position;
+        Window<User> window = userRepository.findBy(spec, q -> q.sortBy(sort).limit(limit).scroll(start));
+
+        List<User> users = window.getContent();
+        if (!users.isEmpty()) {
+            userRepository.findAllWithRolesByIdIn(users.stream().map(User::getId).toList());
+        }
+
+        String nextCursor = null;
+        if (window.hasNext() && !users.isEmpty()) {
+            KeysetScrollPosition last = (KeysetScrollPosition) window.positionAt(users.size() - 1);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(CURSOR_SORT_KEY, sortKey);
+            keys.putAll(last.getKeys());
+            nextCursor = CursorCodec.encode(keys);
+        }
+
+        CursorPageResponse.CursorPageResponseBuilder<UserResponse> response = CursorPageResponse.<UserResponse>builder()
+                .content(userMapper.toResponseList(users))
+                .size(limit)
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null);
+
+        if (withTotal) {
+            boolean unfiltered = keyword == null && searchRequest.getStatus() == null
+                    && searchRequest.getEmailVerified() == null
+                    && (searchRequest.getRoleName() == null || searchRequest.getRoleName().isEmpty());
+            long estimate = unfiltered ? userRepository.estimateCount() : -1;
+            if (estimate >= 0) {
+                response.totalElements(estimate).totalEstimated(true);
+            } else {
+                response.totalElements(userRepository.count(spec)).totalEstimated(false);
+            }
+        }
+
+        return response.build();
+    }
+
+    /**
+     * Typeahead suggestions: served from UserSearchIndex when it is built,
+     * otherwise from the trigram-ranked database search. Deliberately not
+     * transactional, so the index path never borrows a connection.
+     */
+    public List<UserSuggestionResponse> suggestUsers(String query, UserStatus status, Boolean emailVerified,
+                                                     String roleName, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        String role = roleName != null && !roleName.isEmpty() ? roleName : null;
+
+        if (userSearchIndex.isReady()) {
+            return userSearchIndex.search(query, status, emailVerified, role, max);
+        }
+
+        List<UUID> ids = userRepository.searchUsersRanked(
+                escapeLike(query.toLowerCase().trim()),
+                status != null ? status.name() : null,
+                emailVerified,
+                role,
+                PageRequest.of(0, max)
+        ).map(User::getId).getContent();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        // Keep the ranked order; the roles fetch returns users in arbitrary order
+        Map<UUID, User> usersById = userRepository.findAllWithRolesByIdIn(ids).stream()
+                .collect(Collectors.toMap(User::getId, user -> user));
+        return ids.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .map(userMapper::toSuggestion)
+                .toList();
+    }
+
     @Transactional
     public UserResponse updateUser(UUID id, UpdateUserRequest request) {
-        User user = userRepository.findById(id)
+        User user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
-        Map<String, Object> oldValues = captureUserValues(user);
+        Object[] before = AuditFields.USER_PROFILE.snapshot(user);
 
         userMapper.updateUserFromRequest(request, user);
         user = userRepository.save(user);
 
-        Map<String, Object> newValues = captureUserValues(user);
+        FieldDiffer.Diff diff = AuditFields.USER_PROFILE.diff(before, user);
+        publishUserChanged(user);
 
         User currentUser = getCurrentUserEntity();
         log.info("User {} updated by admin: {}", user.getEmail(), currentUser.getEmail());
-        auditService.logAction(currentUser, AuditAction.UPDATE, "User",
-                user.getId().toString(), oldValues, newValues, "User profile updated by admin");
+        auditService.logChange(currentUser, AuditAction.UPDATE, "User",
+                user.getId().toString(), diff, "User profile updated by admin");
 
         return userMapper.toResponse(user);
     }
 
     @Transactional
     public UserResponse updateUserStatus(UUID id, UpdateStatusRequest request) {
-        User user = userRepository.findById(id)
+        User user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
         UserStatus oldStatus = user.getStatus();
+        Object[] before = AuditFields.USER_STATUS.snapshot(user);
         user.setStatus(request.getStatus());
         user = userRepository.save(user);
+        evictPrincipal(user.getId());
+        publishUserChanged(user);
 
         User currentUser = getCurrentUserEntity();
         log.info("User {} status changed from {} to {} by {}",
                 user.getEmail(), oldStatus, request.getStatus(), currentUser.getEmail());
 
-        Map<String, Object> oldValue = Map.of("status", oldStatus.name());
-        Map<String, Object> newValue = Map.of("status", request.getStatus().name());
-        auditService.logAction(currentUser, AuditAction.CHANGE_STATUS, "User",
-                user.getId().toString(), oldValue, newValue, "User status updated");
+        auditService.logChange(currentUser, AuditAction.CHANGE_STATUS, "User",
+                user.getId().toString(), AuditFields.USER_STATUS.diff(before, user), "User status updated");
 
         return userMapper.toResponse(user);
     }
@@ -235,6 +388,8 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
         userRepository.delete(user); // Soft delete via @SQLDelete
+        evictPrincipal(user.getId());
+        eventPublisher.publishEvent(UserChangedEvent.deleted(user.getId()));
 
         User currentUser = getCurrentUserEntity();
         log.info("User {} deleted by {}", user.getEmail(), currentUser.getEmail());
@@ -263,7 +418,7 @@ public class UserService {
 
     @Transactional
     public UserResponse addRole(UUID userId, String roleName) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.findWithRolesById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         Role role = roleRepository.findByName(roleName)
@@ -275,6 +430,8 @@ public class UserService {
 
         user.addRole(role);
         user = userRepository.save(user);
+        evictPrincipal(user.getId());
+        publishUserChanged(user);
 
         User currentUser = getCurrentUserEntity();
         log.info("Role {} added to user {} by {}", roleName, user.getEmail(), currentUser.getEmail());
@@ -288,7 +445,7 @@ public class UserService {
 
     @Transactional
     public UserResponse removeRole(UUID userId, String roleName) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.findWithRolesById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         Role role = roleRepository.findByName(roleName)
@@ -305,6 +462,8 @@ public class UserService {
 
         user.removeRole(role);
         user = userRepository.save(user);
+        evictPrincipal(user.getId());
+        publishUserChanged(user);
 
         User currentUser = getCurrentUserEntity();
         log.info("Role {} removed from user {} by {}", roleName, user.getEmail(), currentUser.getEmail());
@@ -318,14 +477,14 @@ public class UserService {
 
     @Transactional
     public UserResponse updateRoles(UUID userId, Set<String> roleNames) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.findWithRolesById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         if (roleNames == null || roleNames.isEmpty()) {
             throw new BadRequestException("At least one role is required");
         }
 
-        Set<String> oldRoleNames = user.getRoleNames();
+        Object[] before = AuditFields.USER_ROLES.snapshot(user);
 
         // Find all roles by names
         Set<Role> newRoles = new HashSet<>();
@@ -339,14 +498,14 @@ public class UserService {
         user.clearRoles();
         newRoles.forEach(user::addRole);
         user = userRepository.save(user);
+        evictPrincipal(user.getId());
+        publishUserChanged(user);
 
         User currentUser = getCurrentUserEntity();
         log.info("Roles updated for user {} by {}", user.getEmail(), currentUser.getEmail());
 
-        Map<String, Object> oldValue = Map.of("roles", oldRoleNames);
-        Map<String, Object> newValue = Map.of("roles", roleNames);
-        auditService.logAction(currentUser, AuditAction.CHANGE_ROLE, "User",
-                user.getId().toString(), oldValue, newValue, "User roles updated");
+        auditService.logChange(currentUser, AuditAction.CHANGE_ROLE, "User",
+                user.getId().toString(), AuditFields.USER_ROLES.diff(before, user), "User roles updated");
 
         return userMapper.toResponse(user);
     }
@@ -363,24 +522,47 @@ public class UserService {
     // ============================================
 
     private User getCurrentUserEntity() {
+        return userRepository.findById(getCurrentUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("Current user not found"));
+    }
+
+    /**
+     * Current user with roles loaded, for endpoints that return a UserResponse
+     */
+    private User getCurrentUserWithRoles() {
+        return userRepository.findWithRolesById(getCurrentUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("Current user not found"));
+    }
+
+    private UUID getCurrentUserId() {
         UUID userId = SecurityHelper.getCurrentUserId();
 
         if (userId == null) {
             throw new UnauthorizedException("User not authenticated");
         }
 
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Current user not found"));
+        return userId;
+    }
+
+    /**
+     * Drop cached principal and revoke stateless tokens after a role/status change
+     */
+    private void evictPrincipal(UUID userId) {
+        principalCache.invalidate(userId);
+        tokenRevocationList.revoke(userId);
+    }
+
+    /**
+     * Let listeners (search index) pick up the change once the transaction commits
+     */
+    private void publishUserChanged(User user) {
+        eventPublisher.publishEvent(UserChangedEvent.of(user));
     }
 
-    private Map<String, Object> captureUserValues(User user) {
-        Map<String, Object> values = new HashMap<>();
-        values.put("firstName", user.getFirstName());
-        values.put("lastName", user.getLastName());
-        values.put("phoneNumber", user.getPhoneNumber());
-        values.put("address", user.getAddress());
-        values.put("dateOfBirth", user.getDateOfBirth());
-        values.put("bio", user.getBio());
-        return values;
+    /**
+     * Escape LIKE wildcards so the keyword matches literally
+     */
+    private static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.lovedev.api.util;
+
+import com.lovedev.api.model.entity.NotificationSettings;
+import com.lovedev.api.model.entity.User;
+import lombok.experimental.UtilityClass;
+
+/**
+ * The audited fields of each entity, i.e. what shows up in audit_logs old_value/new_value
+ */
+@UtilityClass
+public class AuditFields {
+
+    /**
+     * Profile fields a user (or an admin on their behalf) can edit
+     */
+    public static final FieldDiffer<User> USER_PROFILE = FieldDiffer.<User>builder()
+            .field("firstName", User::getFirstName)
+            .field("lastName", User::getLastName)
+            .field("phoneNumber", User::getPhoneNumber)
+            .field("address", User::getAddress)
+            .field("dateOfBirth", User::getDateOfBirth)
+            .field("bio", User::getBio)
+            .build();
+
+    public static final FieldDiffer<User> USER_STATUS = FieldDiffer.<User>builder()
+            .field("status", User::getStatus)
+            .build();
+
+    // getRoleNames builds a new set, so the snapshot is not affected by role changes
+    public static final FieldDiffer<User> USER_ROLES = FieldDiffer.<User>builder()
+            .field("roles", User::getRoleNames)
+            .build();
+
+    public static final FieldDiffer<NotificationSettings> NOTIFICATION_SETTINGS = FieldDiffer.<NotificationSettings>builder()
+            .field("pushEnabled", NotificationSettings::getPushEnabled)
+            .field("emailEnabled", NotificationSettings::getEmailEnabled)
+            .field("systemNotifications", NotificationSettings::getSystemNotifications)
+            .field("accountNotifications", NotificationSettings::getAccountNotifications)
+            .field("securityAlerts", NotificationSettings::getSecurityAlerts)
+            .build();
+}
@@ -0,0 +1,158 @@
+package com.lovedev.api.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A text template parsed once into literal segments and variable slots
+ * Source syntax is {{name}}. Rendering appends literal, value, literal, ... into a per-thread
+ * buffer sized for the template, so a render costs one pass over the output and the final String,
+ * with no format-string parsing. Values are HTML-escaped.
+ * <p>
+ * Values are passed positionally through a {@link Binding}, made once per call site, which
+ * checks up front that the names it binds are exactly the template's variables.
+ */
+public final class CompiledTemplate {
+
+    private static final Pattern VARIABLE = Pattern.compile("\\{\\{\\s*([A-Za-z][A-Za-z0-9_]*)\\s*}}");
+    // Headroom for values, so typical renders never grow the buffer
+    private static final int VALUE_ALLOWANCE = 1024;
+    // Buffers grown past this by an unusual render are not kept
+    private static final int MAX_RETAINED_CAPACITY = 256 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
+
+    private final String name;
+    private final String[] literals;
+    private final int[] slots;
+    private final List<String> variables;
+    private final int literalLength;
+
+    private CompiledTemplate(String name, String[] literals, int[] slots, List<String> variables) {
+        this.name = name;
+        this.literals = literals;
+        this.slots = slots;
+        this.variables = Collections.unmodifiableList(variables);
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    public static CompiledTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        Matcher matcher = VARIABLE.matcher(source);
+        int position = 0;
+        while (matcher.find()) {
+            literals.add(source.substring(position, matcher.start()));
+            String variable = matcher.group(1);
+            int index = variables.indexOf(variable);
+            if (index < 0) {
+                index = variables.size();
+                variables.add(variable);
+            }
+            slots.add(index);
+            position = matcher.end();
+        }
+        literals.add(source.substring(position));
+        return new CompiledTemplate(name, literals.toArray(new String[0]),
+                slots.stream().mapToInt(Integer::intValue).toArray(), variables);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Distinct variable names, in order of first use
+     */
+    public List<String> getVariables() {
+        return variables;
+    }
+
+    /**
+     * Binds render arguments to variables by position: bind("userName", "url").render(name, url)
+     *
+     * @throws IllegalArgumentException unless names are exactly the template's variables
+     */
+    public Binding bind(String... names) {
+        if (names.length != variables.size()) {
+            throw new IllegalArgumentException("Template " + name + " has variables " + variables +
+                    ", bound " + List.of(names));
+        }
+        int[] argumentOfVariable = new int[variables.size()];
+        for (int argument = 0; argument < names.length; argument++) {
+            int variable = variables.indexOf(names[argument]);
+            if (variable < 0) {
+                throw new IllegalArgumentException("Template " + name + " has no variable " + names[argument]);
+            }
+            argumentOfVariable[variable] = argument;
+        }
+        int[] argumentOfSlot = new int[slots.length];
+        for (int slot = 0; slot < slots.length; slot++) {
+            argumentOfSlot[slot] = argumentOfVariable[slots[slot]];
+        }
+        return new Binding(argumentOfSlot, names.length);
+    }
+
+    public final class Binding {
+
+        private final int[] argumentOfSlot;
+        private final int arity;
+
+        private Binding(int[] argumentOfSlot, int arity) {
+            this.argumentOfSlot = argumentOfSlot;
+            this.arity = arity;
+        }
+
+        public String render(String... values) {
+            if (values.length != arity) {
+                throw new IllegalArgumentException("Template " + name + " takes " + arity + " values, got " + values.length);
+            }
+            StringBuilder out = BUFFER.get();
+            out.setLength(0);
+            out.ensureCapacity(literalLength + VALUE_ALLOWANCE);
+            renderTo(out, values);
+            String rendered = out.toString();
+            if (out.capacity() > MAX_RETAINED_CAPACITY) {
+                BUFFER.remove();
+            }
+            return rendered;
+        }
+
+        public void renderTo(StringBuilder out, String... values) {
+            out.append(literals[0]);
+            for (int slot = 0; slot < argumentOfSlot.length; slot++) {
+                appendEscaped(out, values[argumentOfSlot[slot]]);
+                out.append(literals[slot + 1]);
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String entity = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(value, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(value, start, value.length());
+    }
+}
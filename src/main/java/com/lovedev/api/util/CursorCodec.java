@@ -0,0 +1,140 @@
+package com.lovedev.api.util;
+
+import com.lovedev.api.exception.BadRequestException;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Opaque cursor encoding for keyset pagination
+ * A cursor is a base64url string of "name=typed-value" pairs; values carry a one-letter
+ * type tag so they decode back to the original Java type (s: String, u: UUID,
+ * t: LocalDateTime, i: Instant, l: Long). Newest-first listings keyed on (createdAt, id)
+ * use encodeCreatedAtId / decodeCreatedAtId.
+ */
+public final class CursorCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final char SEPARATOR = '\u001F';
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encode keyset values (in order) as an opaque cursor
+     */
+    public static String encode(Map<String, ?> keys) {
+        StringBuilder sb = new StringBuilder();
+        keys.forEach((name, value) -> {
+            if (!sb.isEmpty()) {
+                sb.append(SEPARATOR);
+            }
+            sb.append(name).append('=').append(tag(value));
+        });
+        return ENCODER.encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode an opaque cursor back to keyset values
+     *
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static Map<String, Object> decode(String cursor) {
+        try {
+            String raw = new String(DECODER.decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (String entry : raw.split(String.valueOf(SEPARATOR))) {
+                int eq = entry.indexOf('=');
+                keys.put(entry.substring(0, eq), untag(entry.substring(eq + 1)));
+            }
+            return keys;
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encode the (createdAt, id) of the last row of a newest-first page
+     */
+    public static String encodeCreatedAtId(LocalDateTime createdAt, UUID id) {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdAt", createdAt);
+        keys.put("id", id);
+        return encode(keys);
+    }
+
+    /**
+     * Decode a (createdAt, id) cursor; a missing cursor starts at the newest row
+     *
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static CreatedAtId decodeCreatedAtId(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return CreatedAtId.NEWEST;
+        }
+        Map<String, Object> keys = decode(cursor);
+        if (!(keys.get("createdAt") instanceof LocalDateTime createdAt) || !(keys.get("id") instanceof UUID id)) {
+            throw new BadRequestException("Invalid cursor");
+        }
+        return new CreatedAtId(createdAt, id);
+    }
+
+    private static String tag(Object value) {
+        if (value == null) {
+            return "n:";
+        }
+        if (value instanceof UUID) {
+            return "u:" + value;
+        }
+        if (value instanceof LocalDateTime) {
+            return "t:" + value;
+        }
+        if (value instanceof Instant) {
+            return "i:" + value;
+        }
+        if (value instanceof Long) {
+            return "l:" + value;
+        }
+        if (value instanceof Enum<?> e) {
+            return "s:" + e.name();
+        }
+        return "s:" + value;
+    }
+
+    private static Object untag(String tagged) {
+        String value = tagged.substring(2);
+        return switch (tagged.charAt(0)) {
+            case 'n' -> null;
+            case 'u' -> UUID.fromString(value);
+            case 't' -> LocalDateTime.parse(value);
+            case 'i' -> Instant.parse(value);
+            case 'l' -> Long.parseLong(value);
+            case 's' -> value;
+            default -> throw new IllegalArgumentException("Unknown cursor value type: " + tagged.charAt(0));
+        };
+    }
+
+    /**
+     * Keyset position in a listing ordered by (createdAt, id) descending
+     */
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class CreatedAtId {
+
+        // Sorts after every real row (uuid ordering is unsigned in PostgreSQL), so the first page needs no special query
+        public static final CreatedAtId NEWEST =
+                new CreatedAtId(LocalDateTime.of(9999, 12, 31, 0, 0), new UUID(-1L, -1L));
+
+        private final LocalDateTime createdAt;
+        private final UUID id;
+    }
+}
@@ -0,0 +1,125 @@
+package com.lovedev.api.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Field-level diff of an entity for audit old/new values
+ * Fields are declared once, as name + getter method reference, so reading them is a plain call
+ * (no reflection, no per-call map building). Take a snapshot before the change and diff it
+ * against the entity afterwards: only changed fields end up in the maps, and an empty diff means
+ * there is nothing to audit.
+ * <p>
+ * Getters must return values that the change cannot mutate in place (immutables or copies), and
+ * the values must serialize to JSON; enums are recorded by name.
+ */
+public final class FieldDiffer<T> {
+
+    private final String[] names;
+    private final Function<? super T, ?>[] accessors;
+
+    private FieldDiffer(List<String> names, List<Function<? super T, ?>> accessors) {
+        this.names = names.toArray(new String[0]);
+        // Generic arrays cannot be created, so the array is raw
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Function<? super T, ?>[] array = accessors.toArray(new Function[0]);
+        this.accessors = array;
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Current field values, in declaration order
+     */
+    public Object[] snapshot(T entity) {
+        Object[] values = new Object[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            values[i] = normalize(accessors[i].apply(entity));
+        }
+        return values;
+    }
+
+    /**
+     * Fields of entity that differ from the snapshot
+     */
+    public Diff diff(Object[] before, T entity) {
+        Map<String, Object> oldValues = null;
+        Map<String, Object> newValues = null;
+        for (int i = 0; i < accessors.length; i++) {
+            Object after = normalize(accessors[i].apply(entity));
+            if (!Objects.equals(before[i], after)) {
+                if (oldValues == null) {
+                    // Sized for the fields still to compare, so the maps never resize
+                    int capacity = (int) ((accessors.length - i) / 0.75f) + 1;
+                    oldValues = new LinkedHashMap<>(capacity);
+                    newValues = new LinkedHashMap<>(capacity);
+                }
+                // Maps rather than Map.of: JSON null is a legitimate old or new value
+                oldValues.put(names[i], before[i]);
+                newValues.put(names[i], after);
+            }
+        }
+        return oldValues == null ? Diff.EMPTY : new Diff(oldValues, newValues);
+    }
+
+    private static Object normalize(Object value) {
+        return value instanceof Enum<?> e ? e.name() : value;
+    }
+
+    /**
+     * Changed fields only, keyed by field name
+     */
+    public static final class Diff {
+
+        static final Diff EMPTY = new Diff(Collections.emptyMap(), Collections.emptyMap());
+
+        private final Map<String, Object> oldValues;
+        private final Map<String, Object> newValues;
+
+        private Diff(Map<String, Object> oldValues, Map<String, Object> newValues) {
+            this.oldValues = oldValues;
+            this.newValues = newValues;
+        }
+
+        public boolean isEmpty() {
+            return oldValues.isEmpty();
+        }
+
+        public Map<String, Object> getOldValues() {
+            return oldValues;
+        }
+
+        public Map<String, Object> getNewValues() {
+            return newValues;
+        }
+    }
+
+    public static final class Builder<T> {
+
+        private final List<String> names = new ArrayList<>();
+        private final List<Function<? super T, ?>> accessors = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder<T> field(String name, Function<? super T, ?> accessor) {
+            if (names.contains(name)) {
+                throw new IllegalArgumentException("Duplicate audit field: " + name);
+            }
+            names.add(name);
+            accessors.add(accessor);
+            return this;
+        }
+
+        public FieldDiffer<T> build() {
+            return new FieldDiffer<>(names, accessors);
+        }
+    }
+}
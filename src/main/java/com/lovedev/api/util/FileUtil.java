@@ -114,6 +114,13 @@ public class FileUtil {
         }
     }
 
+    /**
+     * Root directory of stored files; a path outside it is not a stored file
+     */
+    public Path getStorageLocation() {
+        return this.fileStorageLocation;
+    }
+
     /**
      * Get file path
      */
@@ -0,0 +1,15 @@
+-- ============================================
+-- Audit query API (GET /api/v1/admin/audit-logs)
+-- jsonb_path_ops GIN indexes serve containment filters such as
+-- new_value @> '{"status": "BANNED"}'. The per-user and per-entity listings
+-- page newest first on (created_at, id), so those keys join their indexes.
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_audit_old_value ON audit_logs USING GIN (old_value jsonb_path_ops);
+CREATE INDEX IF NOT EXISTS idx_audit_new_value ON audit_logs USING GIN (new_value jsonb_path_ops);
+
+CREATE INDEX IF NOT EXISTS idx_audit_user_created ON audit_logs(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_audit_entity_created ON audit_logs(entity_type, entity_id, created_at DESC, id DESC);
+
+-- Both are prefixes of the indexes above
+DROP INDEX IF EXISTS idx_audit_user;
+DROP INDEX IF EXISTS idx_audit_entity;
@@ -0,0 +1,22 @@
+-- ============================================
+-- Mail outbox
+-- One row per email, written in the transaction that triggers it (sign-up,
+-- password reset, ...), so a mail is queued exactly when its cause commits.
+-- MailOutboxDispatcher claims due rows with FOR UPDATE SKIP LOCKED and sends
+-- them over pooled SMTP connections. Sent rows are deleted; rows that exhaust
+-- their attempts, or that the server rejects permanently, stay as DEAD.
+-- ============================================
+CREATE TABLE IF NOT EXISTS mail_outbox (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    recipient VARCHAR(320) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(255),
+    created_at TIMESTAMP NOT NULL
+    );
+
+-- Claim scan: only pending rows, in due order
+CREATE INDEX IF NOT EXISTS idx_mail_outbox_due ON mail_outbox(next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,7 @@
+-- ============================================
+-- Dead-lettered mail keeps no body
+-- Rendered bodies carry one-time tokens (verification, password reset).
+-- MailOutboxRepository.markDead now blanks the body when it dead-letters a
+-- row; this clears the rows dead-lettered before that change.
+-- ============================================
+UPDATE mail_outbox SET body = '' WHERE status = 'DEAD' AND body <> '';
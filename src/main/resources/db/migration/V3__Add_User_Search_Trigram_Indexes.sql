@@ -0,0 +1,11 @@
+-- ============================================
+-- User keyword search: trigram indexes
+-- Substring search (LOWER(col) LIKE '%kw%') cannot use B-tree indexes.
+-- One GIN trigram index per searched column lets the planner combine them
+-- with a BitmapOr for the OR'ed first_name / last_name / email predicates.
+-- ============================================
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_user_first_name_trgm ON users USING GIN (LOWER(first_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_last_name_trgm ON users USING GIN (LOWER(last_name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_email_trgm ON users USING GIN (LOWER(email) gin_trgm_ops);
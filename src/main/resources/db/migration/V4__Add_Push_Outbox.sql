@@ -0,0 +1,22 @@
+-- ============================================
+-- Push outbox
+-- One row per (notification, device token), written in the same transaction
+-- as the notifications row. PushOutboxDispatcher claims due rows with
+-- FOR UPDATE SKIP LOCKED, so several nodes can drain the queue in parallel.
+-- Delivered rows are deleted; rows that exhaust their attempts stay as DEAD.
+-- ============================================
+CREATE TABLE IF NOT EXISTS push_outbox (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    notification_id UUID NOT NULL,
+    token VARCHAR(500) NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT push_outbox_notification_id_fkey FOREIGN KEY (notification_id) REFERENCES notifications(id) ON DELETE CASCADE
+    );
+
+-- Claim scan: only pending rows, in due order
+CREATE INDEX IF NOT EXISTS idx_push_outbox_due ON push_outbox(next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_push_outbox_notification ON push_outbox(notification_id);
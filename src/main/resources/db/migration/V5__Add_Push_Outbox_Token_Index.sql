@@ -0,0 +1,5 @@
+-- ============================================
+-- Push coalescing: the dispatcher looks up pending rows by device token
+-- to merge them into a single collapsed message.
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_push_outbox_token ON push_outbox(token) WHERE status = 'PENDING';
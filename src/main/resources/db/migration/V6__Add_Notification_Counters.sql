@@ -0,0 +1,26 @@
+-- ============================================
+-- Materialized notification counters
+-- One row per user, adjusted in the same transaction as every write to
+-- notifications, so the stats/badge endpoint is a primary-key lookup instead
+-- of COUNT queries. FCMService reconciles drift periodically.
+-- ============================================
+CREATE TABLE IF NOT EXISTS notification_counters (
+    user_id UUID PRIMARY KEY,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    read_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT notification_counters_user_id_fkey FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+    );
+
+-- Serves markAllAsRead and the reconciliation counts
+CREATE INDEX IF NOT EXISTS idx_notification_user_status ON notifications(user_id, status);
+
+-- Backfill from existing notifications
+INSERT INTO notification_counters (user_id, unread_count, read_count, updated_at)
+SELECT user_id,
+       COUNT(*) FILTER (WHERE status = 'UNREAD'),
+       COUNT(*) FILTER (WHERE status = 'READ'),
+       CURRENT_TIMESTAMP
+FROM notifications
+GROUP BY user_id
+ON CONFLICT (user_id) DO NOTHING;
@@ -0,0 +1,12 @@
+-- ============================================
+-- Notification inbox keyset pagination
+-- The inbox pages on (created_at, id) descending within one user, optionally
+-- filtered by status. These indexes serve both the offset and the cursor
+-- variants as ordered range scans; id is the tie-breaker for equal timestamps.
+-- ============================================
+CREATE INDEX IF NOT EXISTS idx_notification_user_created ON notifications(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_notification_user_status_created ON notifications(user_id, status, created_at DESC, id DESC);
+
+-- Both are prefixes of the indexes above
+DROP INDEX IF EXISTS idx_notification_user;
+DROP INDEX IF EXISTS idx_notification_user_status;
@@ -0,0 +1,61 @@
+-- ============================================
+-- Range-partition notifications by created_at, one partition per week
+-- Retention drops whole partitions (NotificationPartitionManager) instead of
+-- deleting rows. Partitions are named notifications_pYYYYMMDD after the Monday
+-- they start on; the manager relies on that naming.
+-- ============================================
+
+-- Foreign keys to a partitioned table must include the partition key and block
+-- partition drops. Outbox rows whose notification is gone are discarded by the
+-- dispatcher, and expired ones are removed together with their partition.
+ALTER TABLE push_outbox DROP CONSTRAINT IF EXISTS push_outbox_notification_id_fkey;
+
+ALTER TABLE notifications RENAME TO notifications_unpartitioned;
+
+CREATE TABLE notifications (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    type VARCHAR(20) NOT NULL DEFAULT 'INFO',
+    status VARCHAR(20) NOT NULL DEFAULT 'UNREAD',
+    data TEXT,
+    action_url VARCHAR(255),
+    read_at TIMESTAMP,
+    sent_at TIMESTAMP,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT notifications_user_id_fkey FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+-- Weekly partitions from the oldest existing row up to four weeks ahead
+DO $$
+DECLARE
+    week_start TIMESTAMP;
+    last_week TIMESTAMP := date_trunc('week', CURRENT_TIMESTAMP::TIMESTAMP) + INTERVAL '4 weeks';
+BEGIN
+    SELECT date_trunc('week', COALESCE(MIN(created_at), CURRENT_TIMESTAMP::TIMESTAMP))
+    INTO week_start
+    FROM notifications_unpartitioned;
+
+    WHILE week_start <= last_week LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF notifications FOR VALUES FROM (%L) TO (%L)',
+                       'notifications_p' || to_char(week_start, 'YYYYMMDD'),
+                       week_start,
+                       week_start + INTERVAL '1 week');
+        week_start := week_start + INTERVAL '1 week';
+    END LOOP;
+END $$;
+
+INSERT INTO notifications (id, user_id, title, body, type, status, data, action_url, read_at, sent_at, created_at)
+SELECT id, user_id, title, body, type, status, data, action_url, read_at, sent_at, created_at
+FROM notifications_unpartitioned;
+
+DROP TABLE notifications_unpartitioned;
+
+-- The primary key has to include the partition key; ids stay unique as generated UUIDs
+ALTER TABLE notifications ADD CONSTRAINT notifications_pkey PRIMARY KEY (id, created_at);
+
+-- Partition pruning replaces the created_at index
+CREATE INDEX IF NOT EXISTS idx_notification_user_created ON notifications(user_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_notification_user_status_created ON notifications(user_id, status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_notification_status ON notifications(status);
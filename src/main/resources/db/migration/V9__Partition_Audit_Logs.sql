@@ -0,0 +1,58 @@
+-- ============================================
+-- Range-partition audit_logs by created_at, one partition per month
+-- Named audit_logs_pYYYYMM; AuditLogArchiver pre-creates upcoming months and
+-- exports, detaches and drops the ones past retention.
+-- Rows arrive in created_at order, so a BRIN index replaces the B-tree on it.
+-- ============================================
+ALTER TABLE audit_logs RENAME TO audit_logs_unpartitioned;
+
+CREATE TABLE audit_logs (
+    id UUID NOT NULL DEFAULT gen_random_uuid(),
+    user_id UUID,
+    action VARCHAR(50) NOT NULL,
+    entity_type VARCHAR(50),
+    entity_id VARCHAR(255),
+    old_value JSONB,
+    new_value JSONB,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    description TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_audit_log_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE SET NULL
+) PARTITION BY RANGE (created_at);
+
+-- Monthly partitions from the oldest existing row up to three months ahead
+DO $$
+DECLARE
+    month_start TIMESTAMP;
+    last_month TIMESTAMP := date_trunc('month', CURRENT_TIMESTAMP::TIMESTAMP) + INTERVAL '3 months';
+BEGIN
+    SELECT date_trunc('month', COALESCE(MIN(created_at), CURRENT_TIMESTAMP::TIMESTAMP))
+    INTO month_start
+    FROM audit_logs_unpartitioned;
+
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF audit_logs FOR VALUES FROM (%L) TO (%L)',
+                       'audit_logs_p' || to_char(month_start, 'YYYYMM'),
+                       month_start,
+                       month_start + INTERVAL '1 month');
+        month_start := month_start + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO audit_logs (id, user_id, action, entity_type, entity_id, old_value, new_value,
+                        ip_address, user_agent, description, created_at)
+SELECT id, user_id, action, entity_type, entity_id, old_value, new_value,
+       ip_address, user_agent, description, created_at
+FROM audit_logs_unpartitioned
+ORDER BY created_at;
+
+DROP TABLE audit_logs_unpartitioned;
+
+-- The primary key has to include the partition key
+ALTER TABLE audit_logs ADD CONSTRAINT audit_logs_pkey PRIMARY KEY (id, created_at);
+
+CREATE INDEX IF NOT EXISTS idx_audit_user ON audit_logs(user_id);
+CREATE INDEX IF NOT EXISTS idx_audit_action ON audit_logs(action);
+CREATE INDEX IF NOT EXISTS idx_audit_entity ON audit_logs(entity_type, entity_id);
+CREATE INDEX IF NOT EXISTS idx_audit_created ON audit_logs USING BRIN (created_at);
@@ -0,0 +1,54 @@
+package com.lovedev.api.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Entry point for the benchmarks profile
+ * Runs every matching benchmark once per thread count and writes one JSON result file per run.
+ * The GC profiler is always attached, so gc.alloc.rate.norm (bytes/op) is recorded alongside timings.
+ *
+ * Usage: BenchmarkRunner [outputDir] [includeRegex] [threadCounts]
+ * Example: mvn -Pbenchmarks verify -Dbenchmark.include=JwtTokenProvider -Dbenchmark.threads=1,8,64
+ * Results land in target/jmh/<project.version>/ unless -Dbenchmark.output is set.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path outputDir = Paths.get(args.length > 0 ? args[0] : "target/jmh");
+        String include = args.length > 1 ? args[1] : ".*Benchmark.*";
+        String threadCounts = args.length > 2 ? args[2] : "1";
+
+        Files.createDirectories(outputDir);
+
+        for (String threadCount : threadCounts.split(",")) {
+            int threads = Integer.parseInt(threadCount.trim());
+            Path result = outputDir.resolve("results-t" + threads + ".json");
+
+            OptionsBuilder builder = new OptionsBuilder();
+            if (System.getenv("BENCHMARK_JDBC_URL") == null) {
+                // Database-backed suites need a PostgreSQL instance
+                builder.exclude(UserSearchBenchmark.class.getSimpleName());
+            }
+
+            Options options = builder
+                    .include(include)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(result.toString())
+                    .build();
+
+            new Runner(options).run();
+        }
+    }
+}
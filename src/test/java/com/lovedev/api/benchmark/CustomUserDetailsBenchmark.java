@@ -0,0 +1,128 @@
+package com.lovedev.api.benchmark;
+
+import com.lovedev.api.model.entity.Permission;
+import com.lovedev.api.model.entity.Role;
+import com.lovedev.api.model.entity.User;
+import com.lovedev.api.model.enums.UserStatus;
+import com.lovedev.api.repository.PermissionRepository;
+import com.lovedev.api.repository.RoleRepository;
+import com.lovedev.api.security.CustomUserDetails;
+import com.lovedev.api.security.PermissionMatrix;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Principal construction and authorization checks for users with 1-10 roles and 10-200 permissions
+ * Permissions are spread round-robin across the user's roles. Principals are built the way
+ * CustomUserDetailsService does, with grants from a PermissionMatrix over stubbed repositories.
+ * The has* checks are expected to report gc.alloc.rate.norm of ~0 B/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomUserDetailsBenchmark {
+
+    @Param({"1", "5", "10"})
+    private int roleCount;
+
+    @Param({"10", "50", "200"})
+    private int permissionCount;
+
+    private User user;
+    private PermissionMatrix permissionMatrix;
+    private CustomUserDetails userDetails;
+    private String presentPermission;
+    private String presentRole;
+
+    @Setup
+    public void setUp() {
+        user = buildUser(roleCount, permissionCount);
+        permissionMatrix = permissionMatrix(user.getRoles());
+        userDetails = build();
+        presentPermission = "resource" + (permissionCount - 1) + ":action";
+        presentRole = "BENCH" + (roleCount - 1);
+    }
+
+    static User buildUser(int roleCount, int permissionCount) {
+        Role[] roles = new Role[roleCount];
+        for (int r = 0; r < roleCount; r++) {
+            roles[r] = Role.builder()
+                    .id(UUID.randomUUID())
+                    .name("ROLE_BENCH" + r)
+                    .build();
+        }
+
+        for (int p = 0; p < permissionCount; p++) {
+            Permission permission = Permission.builder()
+                    .id(UUID.randomUUID())
+                    .name("resource" + p + ":action")
+                    .resource("resource" + p)
+                    .action("action")
+                    .build();
+            roles[p % roleCount].addPermission(permission);
+        }
+
+        return User.builder()
+                .id(UUID.randomUUID())
+                .email("benchmark@lovedev.me")
+                .password("{noop}password")
+                .firstName("Bench")
+                .lastName("Mark")
+                .status(UserStatus.ACTIVE)
+                .emailVerified(true)
+                .roles(new HashSet<>(Arrays.asList(roles)))
+                .build();
+    }
+
+    /**
+     * PermissionMatrix over the given roles and their permissions, built eagerly
+     */
+    static PermissionMatrix permissionMatrix(Collection<Role> roles) {
+        Map<String, Permission> permissions = new TreeMap<>();
+        roles.forEach(role -> role.getPermissions().forEach(p -> permissions.put(p.getName(), p)));
+
+        RoleRepository roleRepository = mock(RoleRepository.class);
+        PermissionRepository permissionRepository = mock(PermissionRepository.class);
+        when(roleRepository.findAllWithPermissions()).thenReturn(new ArrayList<>(roles));
+        when(permissionRepository.findAll(any(Sort.class))).thenReturn(new ArrayList<>(permissions.values()));
+
+        PermissionMatrix matrix = new PermissionMatrix(roleRepository, permissionRepository);
+        matrix.refresh();
+        return matrix;
+    }
+
+    @Benchmark
+    public CustomUserDetails build() {
+        return CustomUserDetails.build(user, permissionMatrix.forRoles(user.getRoleNames()));
+    }
+
+    @Benchmark
+    public boolean hasPermissionHit() {
+        return userDetails.hasPermission(presentPermission);
+    }
+
+    @Benchmark
+    public boolean hasPermissionMiss() {
+        return userDetails.hasPermission("missing:permission");
+    }
+
+    @Benchmark
+    public boolean hasRoleHit() {
+        return userDetails.hasRole(presentRole);
+    }
+
+    @Benchmark
+    public boolean hasRoleMiss() {
+        return userDetails.hasRole("MISSING");
+    }
+}
@@ -0,0 +1,58 @@
+package com.lovedev.api.benchmark;
+
+import com.lovedev.api.util.CompiledTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the verification email: String.format over the whole document (how EmailService used to
+ * build it, one format string per email) vs the precompiled template EmailService uses now.
+ * Renders/s is the score; gc.alloc.rate.norm from the GC profiler is the bytes allocated per email.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final String TEMPLATE = "templates/email/verification.html";
+
+    private String format;
+    private CompiledTemplate.Binding template;
+    private String userName;
+    private String verificationUrl;
+
+    @Setup
+    public void setUp() throws IOException {
+        String source;
+        try (InputStream in = EmailTemplateBenchmark.class.getClassLoader().getResourceAsStream(TEMPLATE)) {
+            if (in == null) {
+                throw new IllegalStateException(TEMPLATE + " is not on the classpath");
+            }
+            source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // The same document as the old text block: literal % doubled, slots as %s in argument order
+        format = source.replace("%", "%%")
+                .replace("{{userName}}", "%s")
+                .replace("{{verificationUrl}}", "%s");
+        template = CompiledTemplate.compile("verification", source).bind("userName", "verificationUrl");
+        userName = "Benchmark";
+        verificationUrl = "https://api.lovedev.me/api/v1/auth/verify-email?token=3f1c2a9e-7b4d-4e8a-9c61-0d5b8f2e4a17";
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(format, userName, verificationUrl, verificationUrl, verificationUrl);
+    }
+
+    @Benchmark
+    public String compiledTemplate() {
+        return template.render(userName, verificationUrl);
+    }
+}
@@ -0,0 +1,81 @@
+package com.lovedev.api.benchmark;
+
+import com.lovedev.api.model.entity.User;
+import com.lovedev.api.security.CustomUserDetails;
+import com.lovedev.api.security.JwtTokenProvider;
+import com.lovedev.api.security.PermissionMatrix;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification cost on the request path
+ * legacyValidateThenExtract reproduces the previous filter path: validateToken and
+ * getUserIdFromToken each built a parser and verified the signature.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long-for-hs256";
+
+    private SecretKey secretKey;
+    private JwtParser prebuiltParser;
+    private JwtTokenProvider tokenProvider;
+    private String token;
+    private Authentication authentication;
+
+    @Setup
+    public void setUp() {
+        secretKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        prebuiltParser = Jwts.parser().verifyWith(secretKey).build();
+        tokenProvider = newTokenProvider();
+
+        User user = CustomUserDetailsBenchmark.buildUser(2, 4);
+        PermissionMatrix permissionMatrix = CustomUserDetailsBenchmark.permissionMatrix(user.getRoles());
+        CustomUserDetails userDetails = CustomUserDetails.build(user, permissionMatrix.forRoles(user.getRoleNames()));
+        authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        token = tokenProvider.generateAccessToken(authentication);
+    }
+
+    static JwtTokenProvider newTokenProvider() {
+        return new JwtTokenProvider(SECRET, 900000L, 604800000L, 10000L, false, null);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return tokenProvider.generateAccessToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public String legacyValidateThenExtract() {
+        Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(secretKey).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String prebuiltParserSingleVerify() {
+        return prebuiltParser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public String parseAndValidateCached() {
+        return tokenProvider.parseAndValidate(token).getSubject();
+    }
+}
@@ -0,0 +1,48 @@
+package com.lovedev.api.benchmark;
+
+import com.lovedev.api.security.KeycloakRoleConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keycloak realm + client role extraction for a typical access token
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeycloakRoleConverterBenchmark {
+
+    private KeycloakRoleConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setUp() {
+        converter = new KeycloakRoleConverter();
+        jwt = Jwt.withTokenValue("benchmark")
+                .header("alg", "RS256")
+                .subject("benchmark")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(900))
+                .claim("realm_access", Map.of("roles",
+                        List.of("offline_access", "uma_authorization", "user", "employee")))
+                .claim("resource_access", Map.of(
+                        "lovedev-api", Map.of("roles", List.of("report-viewer", "file-uploader")),
+                        "account", Map.of("roles", List.of("manage-account", "view-profile"))))
+                .build();
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convert() {
+        return converter.convert(jwt);
+    }
+}
@@ -0,0 +1,147 @@
+package com.lovedev.api.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process SMTP server, the stand-in for a real relay in mail throughput tests
+ * Speaks just enough SMTP for Jakarta Mail (EHLO/HELO, MAIL, RCPT, DATA, RSET, NOOP, QUIT; no AUTH,
+ * no STARTTLS), accepts every message after latency ms (+- jitter) and keeps only counters.
+ * Recipients starting with "reject-" get a permanent 550 and those starting with "busy-" a transient 451,
+ * to exercise dead-lettering and retries.
+ */
+public class LocalSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "local-smtp");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LocalSmtpServer(long latencyMillis, long jitterMillis) throws IOException {
+        this.serverSocket = new ServerSocket(0, 128, InetAddress.getLoopbackAddress());
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        Thread acceptor = new Thread(this::acceptLoop, "local-smtp-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    /**
+     * Recipients refused (550 or 451), each retry counted again
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.incrementAndGet();
+                sessions.execute(() -> session(socket));
+            } catch (SocketException e) {
+                return; // closed
+            } catch (IOException e) {
+                System.err.println("local SMTP accept failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost ESMTP stand-in");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line.toUpperCase(Locale.ROOT);
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-8BITMIME\r\n250 PIPELINING");
+                    case "HELO", "NOOP" -> reply(out, "250 OK");
+                    case "MAIL", "RSET" -> reply(out, "250 OK");
+                    case "RCPT" -> {
+                        String address = line.substring(line.indexOf(':') + 1).replace("<", "").trim().toLowerCase(Locale.ROOT);
+                        if (address.startsWith("reject-")) {
+                            rejected.incrementAndGet();
+                            reply(out, "550 5.1.1 No such user");
+                        } else if (address.startsWith("busy-")) {
+                            rejected.incrementAndGet();
+                            reply(out, "451 4.3.0 Try again later");
+                        } else {
+                            reply(out, "250 OK");
+                        }
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard the message
+                        }
+                        pause();
+                        accepted.incrementAndGet();
+                        reply(out, "250 OK queued");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        }
+    }
+
+    private void pause() {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(-jitterMillis, jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void reply(OutputStream out, String reply) throws IOException {
+        out.write((reply + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
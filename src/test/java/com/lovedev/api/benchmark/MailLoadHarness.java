@@ -0,0 +1,130 @@
+package com.lovedev.api.benchmark;
+
+import com.lovedev.api.LovedevApiApplication;
+import com.lovedev.api.service.EmailService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mail throughput load test against LocalSmtpServer
+ * Boots the application with spring.mail pointed at an in-process SMTP stand-in, then queues welcome emails
+ * from concurrent callers (a sign-up burst) and waits for the MailOutboxDispatcher to drain mail_outbox.
+ * Prints how fast mail was queued, how fast it was delivered, and how many SMTP connections that took.
+ * Not a JMH suite: delivery is asynchronous, so the harness does its own timing.
+ *
+ * Needs a dedicated PostgreSQL database (mail_outbox is emptied first):
+ * BENCHMARK_JDBC_URL, BENCHMARK_JDBC_USER, BENCHMARK_JDBC_PASSWORD.
+ * Tuning: -Dload.mails=20000 -Dload.callers=32 -Dload.smtp-latency=20 -Dload.reject-every=0,
+ * plus any app.email.queue.* property.
+ * Example: BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/lovedev_load \
+ *          mvn -Pbenchmarks test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *          -Dexec.args="-classpath %classpath com.lovedev.api.benchmark.MailLoadHarness"
+ */
+public class MailLoadHarness {
+
+    private static final String EMAIL_DOMAIN = "@load.lovedev.me";
+    private static final long DRAIN_TIMEOUT_SECONDS = 600;
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getenv("BENCHMARK_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("BENCHMARK_JDBC_URL is not set; MailLoadHarness needs a PostgreSQL database");
+        }
+        int mails = Integer.getInteger("load.mails", 20_000);
+        int callers = Integer.getInteger("load.callers", 32);
+        long smtpLatency = Long.getLong("load.smtp-latency", 20);
+        // Every nth recipient is refused for good (550), to see dead-lettering under load; 0 disables
+        int rejectEvery = Integer.getInteger("load.reject-every", 0);
+
+        try (LocalSmtpServer smtp = new LocalSmtpServer(smtpLatency, smtpLatency / 2)) {
+            applicationProperties(url, smtp.getPort()).forEach((key, value) -> System.setProperty(key, String.valueOf(value)));
+
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LovedevApiApplication.class)
+                    .run(args)) {
+                JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+                jdbc.update("DELETE FROM mail_outbox");
+                EmailService emailService = context.getBean(EmailService.class);
+
+                ExecutorService pool = Executors.newFixedThreadPool(callers);
+                AtomicInteger next = new AtomicInteger();
+                long start = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int c = 0; c < callers; c++) {
+                    futures.add(pool.submit(() -> {
+                        for (int i = next.getAndIncrement(); i < mails; i = next.getAndIncrement()) {
+                            boolean reject = rejectEvery > 0 && i % rejectEvery == 0;
+                            emailService.sendWelcomeEmail((reject ? "reject-" : "load") + i + EMAIL_DOMAIN, "Load " + i);
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                pool.shutdown();
+                long queued = System.nanoTime();
+
+                long expectedAccepted = rejectEvery > 0 ? mails - (mails + rejectEvery - 1) / rejectEvery : mails;
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+                while (smtp.getAcceptedCount() < expectedAccepted && System.nanoTime() < deadline) {
+                    Thread.sleep(20);
+                }
+                long drained = System.nanoTime();
+
+                report("queued", mails, queued - start);
+                report("delivered", smtp.getAcceptedCount(), drained - start);
+                Long dead = jdbc.queryForObject("SELECT COUNT(*) FROM mail_outbox WHERE status = 'DEAD'", Long.class);
+                System.out.printf("smtp: %d connections, %d accepted, %d refused; outbox: %d dead%n",
+                        smtp.getConnectionCount(), smtp.getAcceptedCount(), smtp.getRejectedCount(), dead);
+                if (smtp.getAcceptedCount() < expectedAccepted) {
+                    System.out.printf("timed out: %d of %d emails delivered%n", smtp.getAcceptedCount(), expectedAccepted);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Object> applicationProperties(String url, int smtpPort) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.username", System.getenv().getOrDefault("BENCHMARK_JDBC_USER", "postgres"));
+        properties.put("spring.datasource.password", System.getenv().getOrDefault("BENCHMARK_JDBC_PASSWORD", "postgres"));
+        properties.put("spring.datasource.hikari.maximum-pool-size", 40);
+        properties.put("server.port", 0);
+        properties.put("app.firebase.enabled", false);
+        properties.put("app.notification.push.gateway", "simulated");
+        properties.put("app.email.queue.dispatch-interval", 50);
+        properties.put("logging.level.com.lovedev.api", "WARN");
+        properties.put("FIREBASE_ENABLED", false);
+        // Placeholders the prod profile expects from the environment; none of them is used here
+        for (String name : List.of("BASE_URL_API", "BASE_URL_WEB", "CORS_ALLOWED_ORIGINS",
+                "EMAIL_RESET_PASSWORD_URL", "EMAIL_VERIFICATION_URL", "FILE_UPLOAD_DIR",
+                "FIREBASE_SERVICE_ACCOUNT_FILE", "GITHUB_CLIENT_ID", "GITHUB_CLIENT_SECRET", "GOOGLE_CLIENT_ID",
+                "GOOGLE_CLIENT_SECRET", "OAUTH2_REDIRECT_URI", "REDIS_HOST")) {
+            properties.put(name, "load-test");
+        }
+        properties.put("DATABASE_URL", url);
+        properties.put("JWT_SECRET", "load-test-secret-load-test-secret-load-test-secret-0123456789");
+        properties.put("FILE_MAX_SIZE", 10485760);
+        properties.put("EMAIL_FROM", "noreply" + EMAIL_DOMAIN);
+        properties.put("EMAIL_FROM_NAME", "LoveDev Load Test");
+        properties.put("MAIL_HOST", "127.0.0.1");
+        properties.put("MAIL_PORT", smtpPort);
+        properties.put("MAIL_USERNAME", "");
+        properties.put("MAIL_PASSWORD", "");
+        properties.put("MAIL_AUTH", false);
+        properties.put("MAIL_ENABLE", false);
+        properties.put("REDIS_PORT", 6379);
+        // Anything already given with -D wins, e.g. -Dapp.email.queue.concurrency=8
+        properties.keySet().removeIf(key -> System.getProperty(key) != null);
+        return properties;
+    }
+
+    private static void report(String label, long operations, long elapsedNanos) {
+        System.out.printf("%-10s %8d emails in %6d ms = %9.0f emails/s%n",
+                label, operations, elapsedNanos / 1_000_000, operations * 1e9 / elapsedNanos);
+    }
+}
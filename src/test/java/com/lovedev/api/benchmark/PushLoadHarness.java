@@ -0,0 +1,240 @@
+package com.lovedev.api.benchmark;
+
+import com.lovedev.api.LovedevApiApplication;
+import com.lovedev.api.model.dto.request.SendBulkNotificationRequest;
+import com.lovedev.api.model.dto.request.SendNotificationRequest;
+import com.lovedev.api.service.FCMService;
+import com.lovedev.api.service.NotificationBroadcastService;
+import com.lovedev.api.service.PushMessage;
+import com.lovedev.api.service.SimulatedPushGateway;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Push throughput load test against SimulatedPushGateway
+ * Boots the application with app.notification.push.gateway=simulated, seeds users with one push token each,
+ * then drives FCMService.sendNotificationToUser from concurrent callers and a NotificationBroadcastService
+ * broadcast. Each message carries its enqueue time in data, so the gateway's delivery listener measures
+ * end-to-end latency (request -> outbox -> dispatcher -> gateway). Prints sustained throughput and p50/p99/p99.9.
+ * Not a JMH suite: the interesting numbers are asynchronous, so the harness does its own timing.
+ *
+ * Needs a dedicated PostgreSQL database (broadcast targets every user in it):
+ * BENCHMARK_JDBC_URL, BENCHMARK_JDBC_USER, BENCHMARK_JDBC_PASSWORD.
+ * Tuning: -Dload.users=20000 -Dload.requests=50000 -Dload.callers=32, plus any app.notification.push.* property.
+ * Example: BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/lovedev_load \
+ *          mvn -Pbenchmarks test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *          -Dexec.args="-classpath %classpath com.lovedev.api.benchmark.PushLoadHarness"
+ */
+public class PushLoadHarness {
+
+    private static final String EMAIL_DOMAIN = "@load.lovedev.me";
+    private static final String TIMESTAMP_PREFIX = "t=";
+    private static final long DRAIN_TIMEOUT_SECONDS = 600;
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getenv("BENCHMARK_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("BENCHMARK_JDBC_URL is not set; PushLoadHarness needs a PostgreSQL database");
+        }
+        int users = Integer.getInteger("load.users", 20_000);
+        int requests = Integer.getInteger("load.requests", 50_000);
+        int callers = Integer.getInteger("load.callers", 32);
+
+        // System properties rank above application.yml; builder default properties would not
+        applicationProperties(url).forEach((key, value) -> System.setProperty(key, String.valueOf(value)));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LovedevApiApplication.class)
+                .run(args)) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            SimulatedPushGateway gateway = context.getBean(SimulatedPushGateway.class);
+            List<UUID> userIds = seed(jdbc, users);
+
+            LatencyRecorder delivery = new LatencyRecorder();
+            gateway.setDeliveryListener(message -> delivery.recordSince(enqueuedAt(message), message.getCoalesced()));
+
+            // Unicast: concurrent admin sends, one queued push per request
+            LatencyRecorder request = new LatencyRecorder();
+            FCMService fcmService = context.getBean(FCMService.class);
+            ExecutorService pool = Executors.newFixedThreadPool(callers);
+            AtomicInteger next = new AtomicInteger();
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < callers; c++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests; i = next.getAndIncrement()) {
+                        SendNotificationRequest send = new SendNotificationRequest();
+                        send.setUserId(userIds.get(i % userIds.size()));
+                        send.setTitle("Load " + i);
+                        send.setBody("Unicast load test");
+                        long begin = System.nanoTime();
+                        send.setData(TIMESTAMP_PREFIX + begin);
+                        fcmService.sendNotificationToUser(send);
+                        request.recordSince(begin);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            pool.shutdown();
+            long requestsDone = System.nanoTime();
+            awaitDeliveries(delivery, requests);
+            report("unicast requests", request, requests, requestsDone - start);
+            report("unicast deliveries", delivery, delivery.count(), System.nanoTime() - start);
+            System.out.printf("unicast coalescing: %d notifications in %d messages%n", delivery.covered(), delivery.count());
+
+            // Broadcast: one request fanning out to every push-enabled token in the database
+            long expected = countPushTargets(jdbc);
+            LatencyRecorder broadcastDelivery = new LatencyRecorder();
+            gateway.setDeliveryListener(message -> broadcastDelivery.recordSince(enqueuedAt(message), message.getCoalesced()));
+            SendBulkNotificationRequest broadcast = new SendBulkNotificationRequest();
+            broadcast.setTitle("Load broadcast");
+            broadcast.setBody("Broadcast load test");
+            start = System.nanoTime();
+            broadcast.setData(TIMESTAMP_PREFIX + start);
+            context.getBean(NotificationBroadcastService.class).broadcast(broadcast);
+            long stored = System.nanoTime();
+            awaitDeliveries(broadcastDelivery, expected);
+            System.out.printf("broadcast fan-out stored and queued in %d ms%n", (stored - start) / 1_000_000);
+            report("broadcast deliveries", broadcastDelivery, broadcastDelivery.count(), System.nanoTime() - start);
+            System.out.printf("gateway totals: %d delivered, %d failed%n",
+                    gateway.getDeliveredCount(), gateway.getFailedCount());
+        }
+    }
+
+    private static Map<String, Object> applicationProperties(String url) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", url);
+        properties.put("spring.datasource.username", System.getenv().getOrDefault("BENCHMARK_JDBC_USER", "postgres"));
+        properties.put("spring.datasource.password", System.getenv().getOrDefault("BENCHMARK_JDBC_PASSWORD", "postgres"));
+        properties.put("spring.datasource.hikari.maximum-pool-size", 40);
+        properties.put("server.port", 0);
+        properties.put("app.firebase.enabled", false);
+        properties.put("app.notification.push.gateway", "simulated");
+        properties.put("app.notification.push.dispatch-interval", 50);
+        properties.put("app.email.enabled", false);
+        properties.put("logging.level.com.lovedev.api", "WARN");
+        properties.put("FIREBASE_ENABLED", false);
+        // Placeholders the prod profile expects from the environment; none of them is used here
+        for (String name : List.of("BASE_URL_API", "BASE_URL_WEB", "CORS_ALLOWED_ORIGINS", "EMAIL_FROM", "EMAIL_FROM_NAME",
+                "EMAIL_RESET_PASSWORD_URL", "EMAIL_VERIFICATION_URL", "FILE_UPLOAD_DIR",
+                "FIREBASE_SERVICE_ACCOUNT_FILE", "GITHUB_CLIENT_ID", "GITHUB_CLIENT_SECRET", "GOOGLE_CLIENT_ID",
+                "GOOGLE_CLIENT_SECRET", "MAIL_HOST", "MAIL_PASSWORD", "MAIL_USERNAME", "OAUTH2_REDIRECT_URI",
+                "REDIS_HOST")) {
+            properties.put(name, "load-test");
+        }
+        properties.put("DATABASE_URL", url);
+        properties.put("JWT_SECRET", "load-test-secret-load-test-secret-load-test-secret-0123456789");
+        properties.put("FILE_MAX_SIZE", 10485760);
+        properties.put("MAIL_PORT", 25);
+        properties.put("MAIL_AUTH", false);
+        properties.put("MAIL_ENABLE", false);
+        properties.put("REDIS_PORT", 6379);
+        // Anything already given with -D wins, e.g. -Dapp.notification.push.simulated.latency=50
+        properties.keySet().removeIf(key -> System.getProperty(key) != null);
+        return properties;
+    }
+
+    private static List<UUID> seed(JdbcTemplate jdbc, int users) {
+        Integer existing = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "'", Integer.class);
+        if (existing == null || existing < users) {
+            int from = existing == null ? 1 : existing + 1;
+            jdbc.update("INSERT INTO users (email, password, first_name, last_name, status, email_verified) " +
+                    "SELECT 'load' || g || '" + EMAIL_DOMAIN + "', 'x', 'Load', 'User' || g, 'ACTIVE', TRUE " +
+                    "FROM generate_series(?, ?) g", from, users);
+            jdbc.update("INSERT INTO notification_settings (user_id, created_at) " +
+                    "SELECT u.id, NOW() FROM users u WHERE u.email LIKE '%" + EMAIL_DOMAIN + "' " +
+                    "AND NOT EXISTS (SELECT 1 FROM notification_settings s WHERE s.user_id = u.id)");
+            jdbc.update("INSERT INTO fcm_tokens (user_id, token, device_type, created_at) " +
+                    "SELECT u.id, 'load-' || u.id, 'android', NOW() FROM users u WHERE u.email LIKE '%" + EMAIL_DOMAIN + "' " +
+                    "AND NOT EXISTS (SELECT 1 FROM fcm_tokens f WHERE f.user_id = u.id)");
+        }
+        // Tokens a previous run deactivated (invalid-token-rate) would shrink the expected counts
+        jdbc.update("UPDATE fcm_tokens SET is_active = TRUE, deactivated_at = NULL WHERE token LIKE 'load-%'");
+        jdbc.update("DELETE FROM push_outbox");
+        return jdbc.queryForList("SELECT id FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "' ORDER BY id LIMIT ?",
+                UUID.class, users);
+    }
+
+    private static long countPushTargets(JdbcTemplate jdbc) {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM fcm_tokens f " +
+                "JOIN notification_settings s ON s.user_id = f.user_id AND s.push_enabled = TRUE " +
+                "JOIN users u ON u.id = f.user_id AND u.deleted_at IS NULL WHERE f.is_active = TRUE", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static long enqueuedAt(PushMessage message) {
+        String data = message.getData();
+        return data != null && data.startsWith(TIMESTAMP_PREFIX)
+                ? Long.parseLong(data.substring(TIMESTAMP_PREFIX.length()))
+                : System.nanoTime();
+    }
+
+    /**
+     * Counts notifications covered by delivered messages (coalesced ones included), so injected
+     * failures are waited for through their retries
+     */
+    private static void awaitDeliveries(LatencyRecorder recorder, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DRAIN_TIMEOUT_SECONDS);
+        while (recorder.covered() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        if (recorder.covered() < expected) {
+            System.out.printf("timed out: %d of %d notifications delivered%n", recorder.covered(), expected);
+        }
+    }
+
+    private static void report(String label, LatencyRecorder recorder, long operations, long elapsedNanos) {
+        long[] sorted = recorder.sorted();
+        System.out.printf("%-22s %8d ops in %6d ms = %9.0f ops/s | p50 %7.2f ms  p99 %7.2f ms  p99.9 %7.2f ms  max %7.2f ms%n",
+                label, operations, elapsedNanos / 1_000_000, operations * 1e9 / elapsedNanos,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static final class LatencyRecorder {
+        private long[] samples = new long[1 << 16];
+        private int size;
+        private long covered;
+
+        private void recordSince(long startNanos) {
+            recordSince(startNanos, 1);
+        }
+
+        private synchronized void recordSince(long startNanos, int notifications) {
+            covered += Math.max(1, notifications);
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = System.nanoTime() - startNanos;
+        }
+
+        private synchronized long count() {
+            return size;
+        }
+
+        private synchronized long covered() {
+            return covered;
+        }
+
+        private synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(samples, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.lovedev.api.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin keyword search latency on a generated 1M-user dataset
+ * SampleTime mode, so the JSON result carries p50/p99 percentiles.
+ * seqScan runs the same LOWER(col) LIKE query with index scans disabled (the pre-V3 plan),
+ * trigram lets the planner use the V3 GIN indexes, ranked is UserRepository.searchUsersRanked.
+ *
+ * Needs a PostgreSQL database: BENCHMARK_JDBC_URL, BENCHMARK_JDBC_USER, BENCHMARK_JDBC_PASSWORD.
+ * Migrations are applied and the dataset is generated on first run.
+ * Example: BENCHMARK_JDBC_URL=jdbc:postgresql://localhost:5432/lovedev_bench \
+ *          mvn -Pbenchmarks verify -Dbenchmark.include=UserSearchBenchmark -Dbenchmark.threads=1
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final int DATASET_SIZE = 1_000_000;
+    private static final String EMAIL_DOMAIN = "@bench.lovedev.me";
+
+    private static final String KEYWORD_FILTER =
+            "(LOWER(u.first_name) LIKE ? OR LOWER(u.last_name) LIKE ? OR LOWER(u.email) LIKE ?)";
+
+    private static final String FILTERED_SQL = "SELECT u.id FROM users u " +
+            "WHERE u.deleted_at IS NULL AND " + KEYWORD_FILTER + " " +
+            "ORDER BY u.created_at DESC LIMIT 20";
+
+    private static final String RANKED_SQL = "SELECT u.id FROM users u " +
+            "WHERE u.deleted_at IS NULL AND " + KEYWORD_FILTER + " " +
+            "ORDER BY GREATEST(similarity(LOWER(u.first_name), ?), " +
+            "similarity(LOWER(u.last_name), ?), similarity(LOWER(u.email), ?)) DESC, u.id LIMIT 20";
+
+    @Param({"seqScan", "trigram", "ranked"})
+    private String variant;
+
+    @Param({"smith", "user424242"})
+    private String keyword;
+
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = System.getenv("BENCHMARK_JDBC_URL");
+        if (url == null) {
+            throw new IllegalStateException("BENCHMARK_JDBC_URL is not set; UserSearchBenchmark needs a PostgreSQL database");
+        }
+        String user = System.getenv().getOrDefault("BENCHMARK_JDBC_USER", "postgres");
+        String password = System.getenv().getOrDefault("BENCHMARK_JDBC_PASSWORD", "postgres");
+
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(url, user, password);
+        seed();
+
+        try (Statement session = connection.createStatement()) {
+            boolean indexes = !"seqScan".equals(variant);
+            session.execute("SET enable_bitmapscan = " + indexes);
+            session.execute("SET enable_indexscan = " + indexes);
+        }
+
+        String pattern = "%" + keyword + "%";
+        statement = connection.prepareStatement("ranked".equals(variant) ? RANKED_SQL : FILTERED_SQL);
+        statement.setString(1, pattern);
+        statement.setString(2, pattern);
+        statement.setString(3, pattern);
+        if ("ranked".equals(variant)) {
+            statement.setString(4, keyword);
+            statement.setString(5, keyword);
+            statement.setString(6, keyword);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        if (statement != null) {
+            statement.close();
+        }
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public List<UUID> search() throws SQLException {
+        List<UUID> ids = new ArrayList<>(20);
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                ids.add(rs.getObject(1, UUID.class));
+            }
+        }
+        return ids;
+    }
+
+    private void seed() throws SQLException {
+        int existing;
+        try (Statement st = connection.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM users WHERE email LIKE '%" + EMAIL_DOMAIN + "'")) {
+            rs.next();
+            existing = rs.getInt(1);
+        }
+        if (existing >= DATASET_SIZE) {
+            return;
+        }
+
+        String insert = "INSERT INTO users (email, password, first_name, last_name, status, email_verified, created_at, updated_at) " +
+                "SELECT 'user' || g || '" + EMAIL_DOMAIN + "', 'x', " +
+                "(ARRAY['John','Jane','Alice','Bob','Sokha','Dara','Maria','Chen','Ahmed','Olga'])[1 + g % 10], " +
+                "(ARRAY['Smith','Johnson','Williams','Brown','Hun','Chan','Garcia','Nguyen','Kim','Ivanova'])[1 + (g / 10) % 10] || (g % 1000), " +
+                "CASE WHEN g % 20 = 0 THEN 'INACTIVE' ELSE 'ACTIVE' END, g % 20 <> 0, " +
+                "NOW() - make_interval(secs => g), NOW() " +
+                "FROM generate_series(?, ?) g";
+        try (PreparedStatement ps = connection.prepareStatement(insert)) {
+            ps.setInt(1, existing + 1);
+            ps.setInt(2, DATASET_SIZE);
+            ps.executeUpdate();
+        }
+        try (Statement st = connection.createStatement()) {
+            st.execute("ANALYZE users");
+        }
+    }
+}
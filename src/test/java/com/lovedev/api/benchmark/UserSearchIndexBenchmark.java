@@ -0,0 +1,68 @@
+package com.lovedev.api.benchmark;
+
+import com.lovedev.api.model.dto.response.UserSuggestionResponse;
+import com.lovedev.api.model.entity.Role;
+import com.lovedev.api.model.entity.User;
+import com.lovedev.api.model.enums.UserStatus;
+import com.lovedev.api.model.event.UserChangedEvent;
+import com.lovedev.api.service.UserSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead latency of the in-memory user index, same name distribution as UserSearchBenchmark
+ * Entries are fed through onUserChanged, so no database is needed.
+ * Compare with UserSearchBenchmark (trigram/ranked) for the database path.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class UserSearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"John", "Jane", "Alice", "Bob", "Sokha", "Dara", "Maria", "Chen", "Ahmed", "Olga"};
+    private static final String[] LAST_NAMES = {"Smith", "Johnson", "Williams", "Brown", "Hun", "Chan", "Garcia", "Nguyen", "Kim", "Ivanova"};
+
+    @Param({"100000"})
+    private int userCount;
+
+    @Param({"smith", "user42424", "jo sm"})
+    private String query;
+
+    private UserSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new UserSearchIndex(null, null, true);
+        Role userRole = Role.builder().id(UUID.randomUUID()).name("ROLE_USER").build();
+        for (int g = 1; g <= userCount; g++) {
+            User user = User.builder()
+                    .id(UUID.randomUUID())
+                    .email("user" + g + "@bench.lovedev.me")
+                    .firstName(FIRST_NAMES[g % 10])
+                    .lastName(LAST_NAMES[(g / 10) % 10] + (g % 1000))
+                    .status(g % 20 == 0 ? UserStatus.INACTIVE : UserStatus.ACTIVE)
+                    .emailVerified(g % 20 != 0)
+                    .roles(new HashSet<>())
+                    .build();
+            user.addRole(userRole);
+            index.onUserChanged(UserChangedEvent.of(user));
+        }
+    }
+
+    @Benchmark
+    public List<UserSuggestionResponse> suggest() {
+        return index.search(query, null, null, null, 10);
+    }
+
+    @Benchmark
+    public List<UserSuggestionResponse> suggestActiveOnly() {
+        return index.search(query, UserStatus.ACTIVE, true, "ROLE_USER", 10);
+    }
+}
@@ -0,0 +1,150 @@
+package com.lovedev.api.controller;
+
+import com.lovedev.api.exception.GlobalExceptionHandler;
+import com.lovedev.api.service.FileStorageService;
+import com.lovedev.api.util.FileUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional and range requests against FileController over a temporary upload directory
+ * Runs without Tomcat, so bodies always take the FileChannel.transferTo path.
+ */
+class FileControllerTest {
+
+    private static final String CONTENT = "abcdefghijklmnopqrstuvwxyz";
+    private static final String FILE_URL = "/api/v1/files/documents/alphabet.txt";
+    private static final String UUID_NAME = "0b7e1b8e-3c1a-4f57-9a55-2f0e9d1c6a42.txt";
+
+    @TempDir
+    Path tempDir;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path uploadDir = tempDir.resolve("uploads");
+        FileUtil fileUtil = new FileUtil(uploadDir.toString(), List.of("txt"), 1024);
+        Files.createDirectories(uploadDir.resolve("documents"));
+        Files.writeString(uploadDir.resolve("documents/alphabet.txt"), CONTENT);
+        Files.writeString(uploadDir.resolve(UUID_NAME), CONTENT);
+        Files.writeString(tempDir.resolve("secret.txt"), "outside the upload directory");
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new FileController(new FileStorageService(fileUtil, 100)))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void servesWholeFileWithStrongETag() throws Exception {
+        mockMvc.perform(get(FILE_URL))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, CONTENT.length()))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, no-cache"))
+                .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[A-Za-z0-9_-]{43}\"")))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void marksUuidNamedFilesImmutable() throws Exception {
+        mockMvc.perform(get("/api/v1/files/" + UUID_NAME))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"));
+    }
+
+    @Test
+    void servesSatisfiableRangeAsPartialContent() throws Exception {
+        mockMvc.perform(get(FILE_URL).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/26"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+                .andExpect(content().string("cdef"));
+    }
+
+    @Test
+    void servesSuffixRange() throws Exception {
+        mockMvc.perform(get(FILE_URL).header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 23-25/26"))
+                .andExpect(content().string("xyz"));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() throws Exception {
+        mockMvc.perform(get(FILE_URL).header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */26"))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void ignoresRangeWhenIfRangeIsStale() throws Exception {
+        mockMvc.perform(get(FILE_URL)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void honorsRangeWhenIfRangeMatches() throws Exception {
+        String etag = etag();
+        mockMvc.perform(get(FILE_URL)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, etag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().string("cdef"));
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() throws Exception {
+        String etag = etag();
+        mockMvc.perform(get(FILE_URL).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void servesFileAgainWhenIfNoneMatchDiffers() throws Exception {
+        mockMvc.perform(get(FILE_URL).header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void rejectsPathOutsideUploadDirectory() throws Exception {
+        mockMvc.perform(get("/api/v1/files/../secret.txt"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void returnsNotFoundForMissingFile() throws Exception {
+        mockMvc.perform(get("/api/v1/files/documents/missing.txt"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String etag() throws Exception {
+        String etag = mockMvc.perform(get(FILE_URL)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        return etag;
+    }
+}
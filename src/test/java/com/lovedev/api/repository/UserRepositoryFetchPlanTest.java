@@ -0,0 +1,148 @@
+package com.lovedev.api.repository;
+
+import com.lovedev.api.model.entity.Role;
+import com.lovedev.api.model.entity.User;
+import com.lovedev.api.model.enums.UserStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Query-count regression test for the User fetch plans
+ * Each view must issue a fixed number of SQL statements regardless of how many
+ * users, roles or permissions are involved (no EAGER graph, no N+1).
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UserRepositoryFetchPlanTest {
+
+    private static final int USER_COUNT = 25;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID firstUserId;
+
+    @BeforeEach
+    void setUp() {
+        Role userRole = roleRepository.findByName("ROLE_USER").orElseThrow();
+        Role employeeRole = roleRepository.findByName("ROLE_EMPLOYEE").orElseThrow();
+
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = User.builder()
+                    .email("fetch-plan-" + i + "@lovedev.me")
+                    .password("{noop}password")
+                    .firstName("Fetch")
+                    .lastName("Plan" + i)
+                    .status(UserStatus.ACTIVE)
+                    .emailVerified(true)
+                    .build();
+            user.addRole(userRole);
+            user.addRole(employeeRole);
+            user = userRepository.save(user);
+            if (i == 0) {
+                firstUserId = user.getId();
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void plainFindByIdDoesNotLoadRoles() {
+        User user = userRepository.findById(firstUserId).orElseThrow();
+
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(user.getRoles())).isFalse();
+    }
+
+    @Test
+    void principalViewLoadsUserAndRolesInOneStatement() {
+        User user = userRepository.findWithRolesById(firstUserId).orElseThrow();
+
+        assertThat(user.getRoleNames()).containsExactlyInAnyOrder("ROLE_USER", "ROLE_EMPLOYEE");
+        assertThat(user.getRoles()).allSatisfy(role ->
+                assertThat(Hibernate.isInitialized(role.getPermissions())).isFalse());
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void principalViewByEmailLoadsUserAndRolesInOneStatement() {
+        User user = userRepository.findWithRolesByEmail("fetch-plan-0@lovedev.me").orElseThrow();
+
+        assertThat(user.getRoleNames()).hasSize(2);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void adminListViewIsPageQueryCountAndOneRolesQuery() {
+        Page<User> page = userRepository.searchUsers(null, null, null,
+                PageRequest.of(0, 20, Sort.by("createdAt").descending()));
+        List<User> users = page.getContent();
+        userRepository.findAllWithRolesByIdIn(users.stream().map(User::getId).toList());
+
+        users.forEach(User::getRoleNames);
+
+        assertThat(users).hasSize(20);
+        assertThat(users).allSatisfy(user -> assertThat(Hibernate.isInitialized(user.getRoles())).isTrue());
+        // page select + count + roles fetch
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void keysetPagesAreDisjointAndCostOneStatementEach() {
+        Sort sort = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+        var spec = UserSpecifications.search("fetch-plan", null, null, "ROLE_EMPLOYEE");
+
+        Window<User> first = userRepository.findBy(spec, q -> q.sortBy(sort).limit(10).scroll(ScrollPosition.keyset()));
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+
+        ScrollPosition next = first.positionAt(first.size() - 1);
+        Window<User> second = userRepository.findBy(spec, q -> q.sortBy(sort).limit(10).scroll(next));
+
+        assertThat(first.getContent()).hasSize(10);
+        assertThat(second.getContent()).hasSize(10).doesNotContainAnyElementsOf(first.getContent());
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}